@@ -0,0 +1,28 @@
+-- 已有数据库升级脚本，新安装直接执行mysql.sql即可
+
+-- 定时任务分片
+ALTER TABLE `schedule_job` ADD COLUMN `shard_total` int(11) DEFAULT 1 COMMENT '分片总数' AFTER `cron_expression`;
+UPDATE `schedule_job` SET `shard_total` = 1 WHERE `shard_total` IS NULL;
+
+ALTER TABLE `schedule_job_log`
+  ADD COLUMN `fire_id` varchar(100) DEFAULT NULL COMMENT '触发批次，同一次触发的所有分片相同' AFTER `params`,
+  ADD COLUMN `shard_index` int(11) DEFAULT 0 COMMENT '分片序号，从0开始' AFTER `fire_id`,
+  ADD COLUMN `shard_total` int(11) DEFAULT 1 COMMENT '分片总数' AFTER `shard_index`,
+  ADD KEY `fire_id` (`fire_id`);
+
+-- 文件上传去重
+ALTER TABLE `sys_oss`
+  ADD COLUMN `content_id` bigint COMMENT '文件内容ID' AFTER `url`;
+CREATE TABLE `sys_oss_content` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `url` varchar(200) COMMENT 'URL地址',
+  `hash` varchar(64) COMMENT '文件内容SHA-256',
+  `type` int COMMENT '云存储类型',
+  `ref_count` int DEFAULT 1 COMMENT '引用次数',
+  `create_date` datetime COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `hash_type` (`hash`, `type`)
+) ENGINE=`InnoDB` DEFAULT CHARACTER SET utf8 COMMENT='文件内容';
+
+-- 监控指标权限
+INSERT INTO `sys_menu`(`menu_id`, `parent_id`, `name`, `url`, `perms`, `type`, `icon`, `order_num`) VALUES (41, 5, '监控指标', NULL, 'sys:metrics:prometheus', 2, NULL, 0);
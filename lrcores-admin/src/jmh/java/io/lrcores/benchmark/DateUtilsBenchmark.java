@@ -0,0 +1,64 @@
+package io.lrcores.benchmark;
+
+import io.lrcores.common.utils.DateUtils;
+import org.joda.time.format.DateTimeFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日期格式化性能，对比原方式(每次新建SimpleDateFormat/Joda格式化器)
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateUtilsBenchmark {
+    private final static String CACHED_PATTERN = "yyyy/MM/dd HH:mm:ss";
+
+    private Date date;
+    private String value;
+    private String cachedValue;
+
+    @Setup
+    public void setup() {
+        date = new Date();
+        value = DateUtils.format(date, DateUtils.DATE_TIME_PATTERN);
+        cachedValue = DateUtils.format(date, CACHED_PATTERN);
+    }
+
+    @Benchmark
+    public String formatOld() {
+        return new SimpleDateFormat(DateUtils.DATE_TIME_PATTERN).format(date);
+    }
+
+    @Benchmark
+    public String format() {
+        return DateUtils.format(date, DateUtils.DATE_TIME_PATTERN);
+    }
+
+    @Benchmark
+    public String formatCached() {
+        return DateUtils.format(date, CACHED_PATTERN);
+    }
+
+    @Benchmark
+    public Date parseOld() {
+        return DateTimeFormat.forPattern(DateUtils.DATE_TIME_PATTERN).parseLocalDateTime(value).toDate();
+    }
+
+    @Benchmark
+    public Date parse() {
+        return DateUtils.stringToDate(value, DateUtils.DATE_TIME_PATTERN);
+    }
+
+    @Benchmark
+    public Date parseCached() {
+        return DateUtils.stringToDate(cachedValue, CACHED_PATTERN);
+    }
+}
@@ -0,0 +1,125 @@
+package io.lrcores.benchmark;
+
+import io.lrcores.common.utils.IdCardUtils;
+import io.lrcores.common.utils.PhoneUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 身份证、手机号码校验性能，对比原正则方式，结果为每秒校验的行数
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdCardPhoneUtilsBenchmark {
+    private final static int ROWS = 100000;
+
+    /**  原手机号码正则  */
+    private final static Pattern PHONE_PATTERN = Pattern.compile(
+            "^(13[0-9]\\d{8})|(14[56789]\\d{8})|(14[14]0\\d{7})|(15[012356789]\\d{8})" +
+                    "|(16[6]\\d{8})|(170[012356789]\\d{7})|(17[135678]\\d{8})" +
+                    "|(1740[0-5]\\d{6})|(18[0-9]\\d{8})|(19[89]\\d{8})$");
+    /**  原身份证正则  */
+    private final static Pattern IDCARD_LENGTH_PATTERN = Pattern.compile("^\\d{15}|(\\d{17}(\\d|x|X))$");
+    private final static Pattern IDCARD18_PATTERN = Pattern.compile(
+            "^[1-9]\\d{5}[1-9]\\d{3}((0[1-9])|(1[0-2]))((0[1-9])|([1-2][0-9])|(3[0-1]))\\d{3}(\\d|x|X)$");
+    private final static Integer[] POWERS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    private final static Map<Integer, String> PROVINCES = new HashMap<>();
+
+    static {
+        for(int code : new int[]{11, 12, 13, 14, 15, 21, 22, 23, 31, 32, 33, 34, 35, 36, 37, 41, 42, 43, 44, 45, 46,
+                50, 51, 52, 53, 54, 61, 62, 63, 64, 65, 71, 81, 82, 91}){
+            PROVINCES.put(code, String.valueOf(code));
+        }
+    }
+
+    private List<String> phones;
+    private List<String> idCards;
+
+    @Setup
+    public void setup() {
+        phones = new ArrayList<>(ROWS);
+        idCards = new ArrayList<>(ROWS);
+        for(int i = 0; i < ROWS; i++){
+            phones.add(String.valueOf(13000000000L + i * 6997L % 7000000000L));
+            idCards.add(i % 2 == 0 ? "440304199001011233" : "44030419900101123" + (i % 10));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void phoneOld(Blackhole blackhole) {
+        for(String phone : phones){
+            blackhole.consume(PHONE_PATTERN.matcher(phone).matches());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void phone(Blackhole blackhole) {
+        for(String phone : phones){
+            blackhole.consume(PhoneUtils.isValid(phone));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void idCardOld(Blackhole blackhole) {
+        for(String idCard : idCards){
+            blackhole.consume(oldIdCard18(idCard));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void idCard(Blackhole blackhole) {
+        for(String idCard : idCards){
+            blackhole.consume(IdCardUtils.isValid(idCard));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object validateAll() {
+        return IdCardUtils.validateAll(idCards);
+    }
+
+    /**
+     * 原18位身份证校验流程：多次正则匹配、HashMap查找省份、每次解析生日
+     */
+    private boolean oldIdCard18(String idCard) {
+        if(!IDCARD_LENGTH_PATTERN.matcher(idCard).matches() || !IDCARD18_PATTERN.matcher(idCard).matches()){
+            return false;
+        }
+        if(!Pattern.compile("^[1-9]\\d{5}$").matcher(idCard.substring(0, 6)).matches()
+                || PROVINCES.get(Integer.parseInt(idCard.substring(0, 2))) == null){
+            return false;
+        }
+        String birthDay = idCard.substring(6, 14);
+        if(!Pattern.compile("^[1-9]\\d{3}((0[1-9])|(1[0-2]))((0[1-9])|([1-2][0-9])|(3[0-1]))$").matcher(birthDay).matches()){
+            return false;
+        }
+        LocalDate birth = LocalDate.of(Integer.parseInt(birthDay.substring(0, 4), 10),
+                Integer.parseInt(birthDay.substring(4, 6), 10), Integer.parseInt(birthDay.substring(6), 10));
+        if(birth.isAfter(LocalDate.now())){
+            return false;
+        }
+        int power = 0;
+        for(int i = 0; i < 17; i++){
+            power += Integer.parseInt(String.valueOf(idCard.charAt(i)), 10) * POWERS[i];
+        }
+        return "10X98765432".charAt(power % 11) == idCard.charAt(17);
+    }
+}
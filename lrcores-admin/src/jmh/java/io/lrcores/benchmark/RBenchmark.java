@@ -0,0 +1,56 @@
+package io.lrcores.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lrcores.common.utils.PageUtils;
+import io.lrcores.common.utils.R;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 返回数据性能，对比原HashMap方式，包含创建及JSON序列化
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PageUtils page = new PageUtils(Arrays.asList("a", "b"), 2, 10, 1);
+
+    private Map<String, Object> map() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("code", 0);
+        map.put("msg", "success");
+        return map;
+    }
+
+    @Benchmark
+    public byte[] okOld() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(map());
+    }
+
+    @Benchmark
+    public byte[] ok() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(R.ok());
+    }
+
+    @Benchmark
+    public byte[] pageOld() throws JsonProcessingException {
+        Map<String, Object> map = map();
+        map.put("page", page);
+        return objectMapper.writeValueAsBytes(map);
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(R.ok().put("page", page));
+    }
+}
@@ -0,0 +1,77 @@
+package io.lrcores.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import io.lrcores.common.serializer.JsonRedisCodec;
+import io.lrcores.common.serializer.KryoRedisCodec;
+import io.lrcores.common.serializer.RedisCodec;
+import io.lrcores.common.serializer.RedisSerializerProperties;
+import io.lrcores.common.serializer.RedisSerializers;
+import io.lrcores.common.utils.RedisKeys;
+import io.lrcores.modules.sys.entity.SysConfigEntity;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Redis编码性能，对比原JSON方式(fastjson字符串 + JDK序列化)的体积和编解码速度
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisSerializerBenchmark {
+    @Param({"json(old)", "json", "kryo", "kryo+lz4"})
+    public String codec;
+
+    private SysConfigEntity config;
+    private byte[] bytes;
+    private Function<SysConfigEntity, byte[]> encoder;
+    private Function<byte[], SysConfigEntity> decoder;
+
+    @Setup
+    public void setup() {
+        config = new SysConfigEntity();
+        config.setId(1L);
+        config.setParamKey("CLOUD_STORAGE_CONFIG_KEY");
+        config.setParamValue("{\"aliyunDomain\":\"\",\"aliyunPrefix\":\"\",\"qcloudBucketName\":\"\",\"qiniuDomain\":\"http://7xqbwh.dl1.z0.glb.clouddn.com\",\"qiniuPrefix\":\"upload\",\"type\":1}");
+        config.setRemark("云存储配置信息");
+        String key = RedisKeys.getSysConfigKey(config.getParamKey());
+
+        if("json(old)".equals(codec)){
+            JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+            encoder = c -> jdk.serialize(JSON.toJSONString(c));
+            decoder = b -> JSON.parseObject((String) jdk.deserialize(b), SysConfigEntity.class);
+        }else{
+            RedisSerializers serializers = serializers(codec.startsWith("kryo") ? KryoRedisCodec.NAME : JsonRedisCodec.NAME,
+                    codec.endsWith("+lz4") ? 0 : -1);
+            encoder = c -> serializers.serialize(key, c);
+            decoder = b -> serializers.deserialize(b, SysConfigEntity.class);
+        }
+
+        bytes = encoder.apply(config);
+        System.out.println(codec + " size: " + bytes.length + " bytes");
+    }
+
+    private RedisSerializers serializers(String codec, int compressThreshold) {
+        RedisSerializerProperties properties = new RedisSerializerProperties();
+        properties.setCodec(codec);
+        properties.setCompressThreshold(compressThreshold);
+        return new RedisSerializers(Arrays.<RedisCodec>asList(new JsonRedisCodec(), new KryoRedisCodec()), properties);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return encoder.apply(config);
+    }
+
+    @Benchmark
+    public SysConfigEntity decode() {
+        return decoder.apply(bytes);
+    }
+}
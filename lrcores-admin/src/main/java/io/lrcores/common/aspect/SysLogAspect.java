@@ -1,12 +1,15 @@
 package io.lrcores.common.aspect;
 
-import com.google.gson.Gson;
 import io.lrcores.common.annotation.SysLog;
 import io.lrcores.common.utils.HttpContextUtils;
 import io.lrcores.common.utils.IPUtils;
+import io.lrcores.common.utils.JsonCodec;
 import io.lrcores.modules.sys.entity.SysLogEntity;
 import io.lrcores.modules.sys.entity.SysUserEntity;
+import io.lrcores.modules.sys.service.SysLogIndexService;
 import io.lrcores.modules.sys.service.SysLogService;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.apache.shiro.SecurityUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -29,6 +32,9 @@ import java.util.Date;
 public class SysLogAspect {
 	@Autowired
 	private SysLogService sysLogService;
+	@Autowired
+	private SysLogIndexService sysLogIndexService;
+	private final Timer writeTimer = Metrics.timer("syslog.write");
 
 	@Pointcut("@annotation(io.lrcores.common.annotation.SysLog)")
 	public void logPointCut() {
@@ -44,7 +50,9 @@ public class SysLogAspect {
 		long time = System.currentTimeMillis() - beginTime;
 
 		//保存日志
+		Timer.Sample sample = Timer.start(Metrics.globalRegistry);
 		saveSysLog(point, time);
+		sample.stop(writeTimer);
 
 		return result;
 	}
@@ -68,7 +76,7 @@ public class SysLogAspect {
 		//请求的参数
 		Object[] args = joinPoint.getArgs();
 		try{
-			String params = new Gson().toJson(args[0]);
+			String params = JsonCodec.toJson(args[0]);
 			sysLog.setParams(params);
 		}catch (Exception e){
 
@@ -87,5 +95,7 @@ public class SysLogAspect {
 		sysLog.setCreateDate(new Date());
 		//保存系统日志
 		sysLogService.save(sysLog);
+		//全文索引
+		sysLogIndexService.index(sysLog);
 	}
 }
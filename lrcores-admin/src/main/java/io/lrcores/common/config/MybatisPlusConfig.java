@@ -3,6 +3,13 @@ package io.lrcores.common.config;
 import com.baomidou.mybatisplus.core.injector.ISqlInjector;
 import com.baomidou.mybatisplus.extension.injector.LogicSqlInjector;
 import com.baomidou.mybatisplus.extension.plugins.PaginationInterceptor;
+import io.lrcores.common.mybatis.CountPaginationInterceptor;
+import io.lrcores.common.mybatis.CountStrategy;
+import io.lrcores.modules.job.dao.ScheduleJobDao;
+import io.lrcores.modules.job.dao.ScheduleJobLogDao;
+import io.lrcores.modules.oss.dao.SysOssDao;
+import io.lrcores.modules.sys.dao.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,13 +19,32 @@ import org.springframework.context.annotation.Configuration;
  */
 @Configuration
 public class MybatisPlusConfig {
+    @Value("${lrcores.page-count.cache-ttl:30}")
+    private long cacheTtl;
+    @Value("${lrcores.page-count.estimate-threshold:100000}")
+    private long estimateThreshold;
 
     /**
-     * 分页插件
+     * 分页插件，按mapper配置总记录数的查询方式，未配置的每次查询
      */
     @Bean
     public PaginationInterceptor paginationInterceptor() {
-        return new PaginationInterceptor();
+        CountPaginationInterceptor interceptor = new CountPaginationInterceptor();
+        interceptor.setCacheTtl(cacheTtl * 1000);
+        interceptor.setEstimateThreshold(estimateThreshold);
+
+        //日志表数据量大，超过阈值时使用估算值
+        interceptor.setStrategy(SysLogDao.class, CountStrategy.ESTIMATED)
+                .setStrategy(ScheduleJobLogDao.class, CountStrategy.ESTIMATED);
+
+        //缓存总记录数，本节点有写操作时清除
+        interceptor.setStrategy(SysUserDao.class, CountStrategy.CACHED)
+                .setStrategy(SysRoleDao.class, CountStrategy.CACHED)
+                .setStrategy(SysConfigDao.class, CountStrategy.CACHED)
+                .setStrategy(SysDictDao.class, CountStrategy.CACHED)
+                .setStrategy(SysOssDao.class, CountStrategy.CACHED)
+                .setStrategy(ScheduleJobDao.class, CountStrategy.CACHED);
+        return interceptor;
     }
 
     @Bean
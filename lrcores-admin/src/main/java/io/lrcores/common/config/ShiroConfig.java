@@ -1,5 +1,8 @@
 package io.lrcores.common.config;
 
+import io.lrcores.common.serializer.RedisSerializers;
+import io.lrcores.modules.sys.shiro.RedisSessionDAO;
+import io.lrcores.modules.sys.shiro.RedisWebSessionManager;
 import io.lrcores.modules.sys.shiro.UserRealm;
 import org.apache.shiro.mgt.SecurityManager;
 import org.apache.shiro.session.mgt.SessionManager;
@@ -8,11 +11,12 @@ import org.apache.shiro.spring.security.interceptor.AuthorizationAttributeSource
 import org.apache.shiro.spring.web.ShiroFilterFactoryBean;
 import org.apache.shiro.web.mgt.DefaultWebSecurityManager;
 import org.apache.shiro.web.session.mgt.DefaultWebSessionManager;
-import org.apache.shiro.web.session.mgt.ServletContainerSessionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -40,12 +44,27 @@ public class ShiroConfig {
     }
 
     /**
-     * 集群环境，session交给spring-session管理
+     * 集群环境，session保存到redis，过期由redis控制
      */
     @Bean
     @ConditionalOnProperty(prefix = "lrcores", name = "cluster", havingValue = "true")
-    public ServletContainerSessionManager servletContainerSessionManager() {
-        return new ServletContainerSessionManager();
+    public DefaultWebSessionManager redisSessionManager(@Value("${lrcores.globalSessionTimeout:3600}") long globalSessionTimeout,
+                                                        RedisSessionDAO redisSessionDAO){
+        RedisWebSessionManager sessionManager = new RedisWebSessionManager();
+        sessionManager.setSessionDAO(redisSessionDAO);
+        sessionManager.setSessionValidationSchedulerEnabled(false);
+        sessionManager.setSessionIdUrlRewritingEnabled(false);
+        sessionManager.setGlobalSessionTimeout(globalSessionTimeout * 1000);
+
+        return sessionManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "lrcores", name = "cluster", havingValue = "true")
+    public RedisSessionDAO redisSessionDAO(@Qualifier("redisBytesTemplate") RedisTemplate<String, byte[]> redisTemplate,
+                                           RedisSerializers redisSerializers,
+                                           @Value("${lrcores.session.touch-interval:60}") long touchInterval){
+        return new RedisSessionDAO(redisTemplate, redisSerializers, touchInterval * 1000);
     }
 
     @Bean("securityManager")
@@ -78,6 +97,9 @@ public class ShiroConfig {
         filterMap.put("/sys/login", "anon");
         filterMap.put("/favicon.ico", "anon");
         filterMap.put("/captcha.jpg", "anon");
+        filterMap.put("/sys/oss/download/**", "anon");
+        //由MetricsController校验令牌，未配置令牌时不开放
+        filterMap.put("/metrics/prometheus", "anon");
         filterMap.put("/**", "authc");
         shiroFilter.setFilterChainDefinitionMap(filterMap);
 
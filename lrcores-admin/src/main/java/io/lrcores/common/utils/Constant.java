@@ -29,6 +29,14 @@ public class Constant {
      *  升序
      */
     public static final String ASC = "asc";
+    /**
+     * keyset分页游标，传入时使用keyset分页，第一页传空字符串
+     */
+    public static final String CURSOR = "cursor";
+    /**
+     * 是否查询精确的总记录数，不使用缓存和估算值；keyset分页时为是否查询总记录数
+     */
+    public static final String COUNT = "count";
 
 	/**
 	 * 菜单类型
@@ -97,7 +105,11 @@ public class Constant {
         /**
          * 腾讯云
          */
-        QCLOUD(3);
+        QCLOUD(3),
+        /**
+         * 本地存储
+         */
+        LOCAL(4);
 
         private int value;
 
@@ -1,8 +1,11 @@
 package io.lrcores.common.utils;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import io.lrcores.common.exception.RRException;
+import io.lrcores.common.mybatis.CountPage;
 import io.lrcores.common.xss.SQLFilter;
 import org.apache.commons.lang.StringUtils;
 
@@ -30,8 +33,9 @@ public class Query<T> {
             limit = Long.parseLong((String)params.get(Constant.LIMIT));
         }
 
-        //分页对象
-        Page<T> page = new Page<>(curPage, limit);
+        //分页对象，count=true时查询精确的总记录数
+        CountPage<T> page = new CountPage<>(curPage, limit);
+        page.setExactCount(isCount(params));
 
         //分页参数
         params.put(Constant.PAGE, page);
@@ -64,4 +68,65 @@ public class Query<T> {
 
         return page;
     }
+
+    /**
+     * 是否使用keyset分页
+     */
+    public static boolean isKeyset(Map<String, Object> params) {
+        return params.get(Constant.CURSOR) != null;
+    }
+
+    /**
+     * 是否查询精确的总记录数，keyset分页时为是否查询总记录数
+     */
+    public static boolean isCount(Map<String, Object> params) {
+        return "true".equals(params.get(Constant.COUNT));
+    }
+
+    /**
+     * keyset分页，根据游标生成 (sort, id) 之后的查询条件，不使用offset，不查询总记录数
+     * 多查询一条记录，用于判断是否有下一页，结果通过 PageUtils.keyset 转换
+     *
+     * @param params     查询参数
+     * @param wrapper    查询条件，会追加游标条件和排序
+     * @param sortField  排序字段，与idField相同时只按ID排序
+     * @param idField    主键字段，排序值相同时按主键排序
+     * @param isAsc      是否升序
+     */
+    public IPage<T> getKeysetPage(Map<String, Object> params, QueryWrapper<T> wrapper, String sortField, String idField, boolean isAsc) {
+        long limit = 10;
+        if(params.get(Constant.LIMIT) != null){
+            limit = Long.parseLong((String)params.get(Constant.LIMIT));
+        }
+        if(limit < 1){
+            throw new RRException("每页记录数不能小于1");
+        }
+
+        String cursor = (String)params.get(Constant.CURSOR);
+        if(StringUtils.isNotEmpty(cursor)){
+            KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+            String sortValue = keysetCursor.getSortValue();
+            String id = keysetCursor.getId();
+
+            if(sortField.equals(idField) || sortValue == null){
+                wrapper.apply(idField + (isAsc ? " > {0}" : " < {0}"), id);
+            }else {
+                //展开为 sort > ? or (sort = ? and id > ?)，可以使用(sort, id)索引
+                String op = isAsc ? " > {0}" : " < {0}";
+                wrapper.and(w -> w.apply(sortField + op, sortValue)
+                        .or(o -> o.eq(sortField, sortValue).apply(idField + op, id)));
+            }
+        }
+
+        if(sortField.equals(idField)){
+            wrapper.orderBy(true, isAsc, idField);
+        }else {
+            wrapper.orderBy(true, isAsc, sortField, idField);
+        }
+
+        //不查询总记录数
+        Page<T> page = new Page<>(1, limit + 1, false);
+        params.put(Constant.PAGE, page);
+        return page;
+    }
 }
@@ -5,9 +5,19 @@ package io.lrcores.common.utils;
  *
  */
 public class RedisKeys {
+    /**  系统配置key前缀  */
+    public final static String SYS_CONFIG_PREFIX = "sys:config:";
+    /**  菜单缓存名称  */
+    public final static String CACHE_MENU = "sys:menu";
+    /**  用户菜单缓存名称  */
+    public final static String CACHE_USER_MENU = "sys:menu:user";
+    /**  子部门缓存名称  */
+    public final static String CACHE_SUB_DEPT = "sys:dept:sub";
+    /**  数据字典缓存名称  */
+    public final static String CACHE_DICT = "sys:dict";
 
     public static String getSysConfigKey(String key){
-        return "sys:config:" + key;
+        return SYS_CONFIG_PREFIX + key;
     }
 
     public static String getShiroSessionKey(String key){
@@ -0,0 +1,8 @@
+package io.lrcores.common.validator.group;
+
+/**
+ * 本地存储
+ *
+ */
+public interface LocalGroup {
+}
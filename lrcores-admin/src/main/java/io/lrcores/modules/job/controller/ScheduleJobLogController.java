@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -43,4 +44,16 @@ public class ScheduleJobLogController {
 
 		return R.ok().put("log", log);
 	}
+
+	/**
+	 * 分片执行汇总
+	 */
+	@RequestMapping("/shard/{fireId}")
+	@RequiresPermissions("sys:schedule:log")
+	public R shard(@PathVariable("fireId") String fireId){
+		Map<String, Object> summary = scheduleJobLogService.queryShardSummary(fireId);
+		List<ScheduleJobLogEntity> list = scheduleJobLogService.queryShardList(fireId);
+
+		return R.ok().put("summary", summary).put("list", list);
+	}
 }
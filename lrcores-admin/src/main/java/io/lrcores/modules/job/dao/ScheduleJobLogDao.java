@@ -4,6 +4,8 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import io.lrcores.modules.job.entity.ScheduleJobLogEntity;
 import org.apache.ibatis.annotations.Mapper;
 
+import java.util.Map;
+
 /**
  * 定时任务日志
  *
@@ -11,4 +13,8 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface ScheduleJobLogDao extends BaseMapper<ScheduleJobLogEntity> {
 
+	/**
+	 * 分片执行汇总
+	 */
+	Map<String, Object> queryShardSummary(String fireId);
 }
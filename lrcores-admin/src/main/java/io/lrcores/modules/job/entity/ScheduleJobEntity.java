@@ -6,6 +6,7 @@ import com.baomidou.mybatisplus.annotation.TableName;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Data;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import java.io.Serializable;
 import java.util.Date;
@@ -24,6 +25,16 @@ public class ScheduleJobEntity implements Serializable {
 	 */
     public static final String JOB_PARAM_KEY = "JOB_PARAM_KEY";
 
+	/**
+	 * 任务调度分片序号key
+	 */
+	public static final String JOB_SHARD_KEY = "JOB_SHARD_KEY";
+
+	/**
+	 * 任务调度触发批次key，同一次触发的所有分片共用
+	 */
+	public static final String JOB_FIRE_KEY = "JOB_FIRE_KEY";
+
 	/**
 	 * 任务id
 	 */
@@ -47,6 +58,12 @@ public class ScheduleJobEntity implements Serializable {
 	@NotBlank(message="cron表达式不能为空")
 	private String cronExpression;
 
+	/**
+	 * 分片总数，大于1时每次触发拆分为多个分片，由集群各节点执行
+	 */
+	@Min(value = 1, message="分片总数不能小于1")
+	private Integer shardTotal;
+
 	/**
 	 * 任务状态
 	 */
@@ -39,6 +39,21 @@ public class ScheduleJobLogEntity implements Serializable {
 	 */
 	private String params;
 
+	/**
+	 * 触发批次，同一次触发的所有分片相同
+	 */
+	private String fireId;
+
+	/**
+	 * 分片序号，从0开始
+	 */
+	private Integer shardIndex;
+
+	/**
+	 * 分片总数
+	 */
+	private Integer shardTotal;
+
 	/**
 	 * 任务状态    0：成功    1：失败
 	 */
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import io.lrcores.modules.job.entity.ScheduleJobLogEntity;
 import io.lrcores.common.utils.PageUtils;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -14,4 +15,14 @@ public interface ScheduleJobLogService extends IService<ScheduleJobLogEntity> {
 
 	PageUtils queryPage(Map<String, Object> params);
 
+	/**
+	 * 分片执行汇总（分片数、成功数、失败数、耗时）
+	 */
+	Map<String, Object> queryShardSummary(String fireId);
+
+	/**
+	 * 同一次触发的各分片执行记录
+	 */
+	List<ScheduleJobLogEntity> queryShardList(String fireId);
+
 }
@@ -11,6 +11,7 @@ import io.lrcores.modules.job.service.ScheduleJobLogService;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Map;
 
 @Service("scheduleJobLogService")
@@ -19,13 +20,31 @@ public class ScheduleJobLogServiceImpl extends ServiceImpl<ScheduleJobLogDao, Sc
 	@Override
 	public PageUtils queryPage(Map<String, Object> params) {
 		String jobId = (String)params.get("jobId");
+		QueryWrapper<ScheduleJobLogEntity> wrapper = new QueryWrapper<ScheduleJobLogEntity>().like(StringUtils.isNotBlank(jobId),"job_id", jobId);
+
+		//keyset分页，深度翻页不扫描前面的记录
+		if(Query.isKeyset(params)){
+			long totalCount = Query.isCount(params) ? this.count(wrapper) : -1;
+			IPage<ScheduleJobLogEntity> page = this.page(new Query<ScheduleJobLogEntity>().getKeysetPage(params, wrapper, "log_id", "log_id", false), wrapper);
+			return PageUtils.keyset(page, totalCount, null, ScheduleJobLogEntity::getLogId);
+		}
 
 		IPage<ScheduleJobLogEntity> page = this.page(
 			new Query<ScheduleJobLogEntity>().getPage(params),
-			new QueryWrapper<ScheduleJobLogEntity>().like(StringUtils.isNotBlank(jobId),"job_id", jobId)
+			wrapper
 		);
 
 		return new PageUtils(page);
 	}
 
+	@Override
+	public Map<String, Object> queryShardSummary(String fireId) {
+		return baseMapper.queryShardSummary(fireId);
+	}
+
+	@Override
+	public List<ScheduleJobLogEntity> queryShardList(String fireId) {
+		return this.list(new QueryWrapper<ScheduleJobLogEntity>().eq("fire_id", fireId).orderByAsc("shard_index"));
+	}
+
 }
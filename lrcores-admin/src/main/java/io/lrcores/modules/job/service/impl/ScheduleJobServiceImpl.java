@@ -11,9 +11,11 @@ import io.lrcores.modules.job.entity.ScheduleJobEntity;
 import io.lrcores.modules.job.service.ScheduleJobService;
 import io.lrcores.modules.job.utils.ScheduleUtils;
 import org.apache.commons.lang.StringUtils;
-import org.quartz.CronTrigger;
 import org.quartz.Scheduler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,20 +27,31 @@ public class ScheduleJobServiceImpl extends ServiceImpl<ScheduleJobDao, Schedule
 	@Autowired
     private Scheduler scheduler;
 
+	/**
+	 * 项目启动后再后台同步定时任务，true后台同步   false启动时同步
+	 */
+	@Value("${lrcores.job.async-init:false}")
+	private boolean asyncInit;
+
 	/**
 	 * 项目启动时，初始化定时器
 	 */
 	@PostConstruct
 	public void init(){
-		List<ScheduleJobEntity> scheduleJobList = this.list();
-		for(ScheduleJobEntity scheduleJob : scheduleJobList){
-			CronTrigger cronTrigger = ScheduleUtils.getCronTrigger(scheduler, scheduleJob.getJobId());
-            //如果不存在，则创建
-            if(cronTrigger == null) {
-                ScheduleUtils.createScheduleJob(scheduler, scheduleJob);
-            }else {
-                ScheduleUtils.updateScheduleJob(scheduler, scheduleJob);
-            }
+		if(!asyncInit){
+			ScheduleUtils.reconcileScheduleJobs(scheduler, this.list());
+		}
+	}
+
+	/**
+	 * 项目启动完成后，后台初始化定时器
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void asyncInit(){
+		if(asyncInit){
+			Thread thread = new Thread(() -> ScheduleUtils.reconcileScheduleJobs(scheduler, this.list()), "schedule-job-init");
+			thread.setDaemon(true);
+			thread.start();
 		}
 	}
 
@@ -60,6 +73,9 @@ public class ScheduleJobServiceImpl extends ServiceImpl<ScheduleJobDao, Schedule
 	public void saveJob(ScheduleJobEntity scheduleJob) {
 		scheduleJob.setCreateTime(new Date());
 		scheduleJob.setStatus(Constant.ScheduleStatus.NORMAL.getValue());
+		if(scheduleJob.getShardTotal() == null){
+			scheduleJob.setShardTotal(1);
+		}
         this.save(scheduleJob);
 
         ScheduleUtils.createScheduleJob(scheduler, scheduleJob);
@@ -12,4 +12,15 @@ public interface ITask {
      * @param params   参数，多参数使用JSON数据
      */
     void run(String params);
+
+    /**
+     * 分片执行定时任务接口，未实现分片的任务忽略分片信息，直接执行
+     *
+     * @param params       参数，多参数使用JSON数据
+     * @param shardIndex   当前分片序号，从0开始
+     * @param shardTotal   分片总数
+     */
+    default void run(String params, int shardIndex, int shardTotal) {
+        run(params);
+    }
 }
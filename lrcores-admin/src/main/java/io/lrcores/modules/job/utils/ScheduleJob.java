@@ -3,8 +3,12 @@ package io.lrcores.modules.job.utils;
 import io.lrcores.modules.job.entity.ScheduleJobEntity;
 import io.lrcores.modules.job.entity.ScheduleJobLogEntity;
 import io.lrcores.modules.job.service.ScheduleJobLogService;
+import io.lrcores.modules.job.task.ITask;
 import io.lrcores.common.utils.SpringContextUtils;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.apache.commons.lang.StringUtils;
+import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.slf4j.Logger;
@@ -12,7 +16,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.quartz.QuartzJobBean;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -21,11 +30,27 @@ import java.util.Date;
  */
 public class ScheduleJob extends QuartzJobBean {
 	private Logger logger = LoggerFactory.getLogger(getClass());
+	/**  按bean名称、状态缓存的Timer，每次执行都会创建新实例，使用静态变量  */
+	private final static Map<List<String>, Timer> TIMERS = new ConcurrentHashMap<>();
 
     @Override
     protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
-        ScheduleJobEntity scheduleJob = (ScheduleJobEntity) context.getMergedJobDataMap()
-        		.get(ScheduleJobEntity.JOB_PARAM_KEY);
+        JobDataMap dataMap = context.getMergedJobDataMap();
+        ScheduleJobEntity scheduleJob = (ScheduleJobEntity) dataMap.get(ScheduleJobEntity.JOB_PARAM_KEY);
+
+        //分片总数
+        int shardTotal = ScheduleUtils.getShardTotal(scheduleJob);
+
+        //分片任务的触发，只负责拆分分片，由集群中各节点竞争执行
+        if(shardTotal > 1 && !dataMap.containsKey(ScheduleJobEntity.JOB_SHARD_KEY)){
+            logger.debug("任务分片分发，任务ID：" + scheduleJob.getJobId() + "  分片总数：" + shardTotal);
+
+            ScheduleUtils.runShards(context.getScheduler(), scheduleJob, context.getFireInstanceId());
+            return;
+        }
+
+        int shardIndex = dataMap.containsKey(ScheduleJobEntity.JOB_SHARD_KEY) ? dataMap.getInt(ScheduleJobEntity.JOB_SHARD_KEY) : 0;
+        String fireId = dataMap.containsKey(ScheduleJobEntity.JOB_FIRE_KEY) ? dataMap.getString(ScheduleJobEntity.JOB_FIRE_KEY) : context.getFireInstanceId();
 
         //获取spring bean
         ScheduleJobLogService scheduleJobLogService = (ScheduleJobLogService) SpringContextUtils.getBean("scheduleJobLogService");
@@ -35,6 +60,9 @@ public class ScheduleJob extends QuartzJobBean {
         log.setJobId(scheduleJob.getJobId());
         log.setBeanName(scheduleJob.getBeanName());
         log.setParams(scheduleJob.getParams());
+        log.setFireId(fireId);
+        log.setShardIndex(shardIndex);
+        log.setShardTotal(shardTotal);
         log.setCreateTime(new Date());
 
         //任务开始时间
@@ -42,11 +70,15 @@ public class ScheduleJob extends QuartzJobBean {
 
         try {
             //执行任务
-        	logger.debug("任务准备执行，任务ID：" + scheduleJob.getJobId());
+        	logger.debug("任务准备执行，任务ID：" + scheduleJob.getJobId() + "  分片：" + shardIndex + "/" + shardTotal);
 
 			Object target = SpringContextUtils.getBean(scheduleJob.getBeanName());
-			Method method = target.getClass().getDeclaredMethod("run", String.class);
-			method.invoke(target, scheduleJob.getParams());
+			if(target instanceof ITask){
+				((ITask) target).run(scheduleJob.getParams(), shardIndex, shardTotal);
+			}else {
+				Method method = target.getClass().getDeclaredMethod("run", String.class);
+				method.invoke(target, scheduleJob.getParams());
+			}
 
 			//任务执行总时长
 			long times = System.currentTimeMillis() - startTime;
@@ -54,9 +86,9 @@ public class ScheduleJob extends QuartzJobBean {
 			//任务状态    0：成功    1：失败
 			log.setStatus(0);
 
-			logger.debug("任务执行完毕，任务ID：" + scheduleJob.getJobId() + "  总共耗时：" + times + "毫秒");
+			logger.debug("任务执行完毕，任务ID：" + scheduleJob.getJobId() + "  分片：" + shardIndex + "/" + shardTotal + "  总共耗时：" + times + "毫秒");
 		} catch (Exception e) {
-			logger.error("任务执行失败，任务ID：" + scheduleJob.getJobId(), e);
+			logger.error("任务执行失败，任务ID：" + scheduleJob.getJobId() + "  分片：" + shardIndex + "/" + shardTotal, e);
 
 			//任务执行总时长
 			long times = System.currentTimeMillis() - startTime;
@@ -66,7 +98,19 @@ public class ScheduleJob extends QuartzJobBean {
 			log.setStatus(1);
 			log.setError(StringUtils.substring(e.toString(), 0, 2000));
 		}finally {
+			//任务执行时长，按bean名称、状态统计
+			String status = Integer.valueOf(0).equals(log.getStatus()) ? "success" : "failure";
+			getTimer(scheduleJob.getBeanName(), status).record(System.currentTimeMillis() - startTime, TimeUnit.MILLISECONDS);
 			scheduleJobLogService.save(log);
 		}
     }
+
+	private static Timer getTimer(String beanName, String status) {
+		List<String> tags = Arrays.asList(beanName, status);
+		Timer timer = TIMERS.get(tags);
+		if(timer == null){
+			timer = TIMERS.computeIfAbsent(tags, k -> Metrics.timer("schedule.job", "bean", k.get(0), "status", k.get(1)));
+		}
+		return timer;
+	}
 }
@@ -4,12 +4,18 @@ import io.lrcores.common.utils.Constant;
 import io.lrcores.modules.job.entity.ScheduleJobEntity;
 import io.lrcores.common.exception.RRException;
 import org.quartz.*;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
 
 /**
  * 定时任务工具类
  *
  */
 public class ScheduleUtils {
+    private final static Logger logger = LoggerFactory.getLogger(ScheduleUtils.class);
     private final static String JOB_NAME = "TASK_";
 
     /**
@@ -42,20 +48,7 @@ public class ScheduleUtils {
      */
     public static void createScheduleJob(Scheduler scheduler, ScheduleJobEntity scheduleJob) {
         try {
-        	//构建job信息
-            JobDetail jobDetail = JobBuilder.newJob(ScheduleJob.class).withIdentity(getJobKey(scheduleJob.getJobId())).build();
-
-            //表达式调度构建器
-            CronScheduleBuilder scheduleBuilder = CronScheduleBuilder.cronSchedule(scheduleJob.getCronExpression())
-            		.withMisfireHandlingInstructionDoNothing();
-
-            //按新的cronExpression表达式构建一个新的trigger
-            CronTrigger trigger = TriggerBuilder.newTrigger().withIdentity(getTriggerKey(scheduleJob.getJobId())).withSchedule(scheduleBuilder).build();
-
-            //放入参数，运行时的方法可以获取
-            jobDetail.getJobDataMap().put(ScheduleJobEntity.JOB_PARAM_KEY, scheduleJob);
-
-            scheduler.scheduleJob(jobDetail, trigger);
+            scheduler.scheduleJob(buildJobDetail(scheduleJob), buildCronTrigger(scheduleJob));
 
             //暂停任务
             if(scheduleJob.getStatus() == Constant.ScheduleStatus.PAUSE.getValue()){
@@ -66,6 +59,122 @@ public class ScheduleUtils {
         }
     }
 
+    /**
+     * 批量同步定时任务
+     *
+     * 一次读取已存在的触发器，与数据库中的任务比对，只对新增或cron、参数变更的任务批量重新调度，
+     * 状态不一致的任务暂停或恢复，数据库中已删除的任务从调度器中移除
+     *
+     * 所有修改都通过Quartz接口完成，由Quartz加TRIGGER_ACCESS锁并通知调度线程，不直接修改QRTZ表
+     */
+    public static void reconcileScheduleJobs(Scheduler scheduler, List<ScheduleJobEntity> scheduleJobList) {
+        try {
+            Set<TriggerKey> triggerKeys = scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(Scheduler.DEFAULT_GROUP));
+
+            Map<JobDetail, Set<? extends Trigger>> triggersAndJobs = new HashMap<>();
+            List<Long> pauseList = new ArrayList<>();
+            List<Long> resumeList = new ArrayList<>();
+            Set<String> jobNames = new HashSet<>(scheduleJobList.size());
+            for(ScheduleJobEntity scheduleJob : scheduleJobList){
+                TriggerKey triggerKey = getTriggerKey(scheduleJob.getJobId());
+                jobNames.add(triggerKey.getName());
+                boolean paused = scheduleJob.getStatus() == Constant.ScheduleStatus.PAUSE.getValue();
+
+                //不存在或已变更，则重新调度
+                if(!triggerKeys.contains(triggerKey) || isChanged(scheduler, scheduleJob)){
+                    triggersAndJobs.put(buildJobDetail(scheduleJob), Collections.singleton(buildCronTrigger(scheduleJob)));
+                    if(paused){
+                        pauseList.add(scheduleJob.getJobId());
+                    }
+                    continue;
+                }
+
+                //只有状态不一致
+                boolean triggerPaused = scheduler.getTriggerState(triggerKey) == Trigger.TriggerState.PAUSED;
+                if(paused && !triggerPaused){
+                    pauseList.add(scheduleJob.getJobId());
+                }else if(!paused && triggerPaused){
+                    resumeList.add(scheduleJob.getJobId());
+                }
+            }
+
+            if(!triggersAndJobs.isEmpty()){
+                scheduler.scheduleJobs(triggersAndJobs, true);
+            }
+            for(Long jobId : pauseList){
+                pauseJob(scheduler, jobId);
+            }
+            for(Long jobId : resumeList){
+                resumeJob(scheduler, jobId);
+            }
+
+            //数据库中已删除的任务
+            List<JobKey> deleteList = new ArrayList<>();
+            for(TriggerKey triggerKey : triggerKeys){
+                if(triggerKey.getName().startsWith(JOB_NAME) && !jobNames.contains(triggerKey.getName())){
+                    deleteList.add(JobKey.jobKey(triggerKey.getName()));
+                }
+            }
+            if(!deleteList.isEmpty()){
+                scheduler.deleteJobs(deleteList);
+            }
+
+            logger.info("定时任务同步完成，任务总数：{}，重新调度：{}，暂停：{}，恢复：{}，删除：{}",
+                    scheduleJobList.size(), triggersAndJobs.size(), pauseList.size(), resumeList.size(), deleteList.size());
+        } catch (SchedulerException e) {
+            throw new RRException("同步定时任务失败", e);
+        }
+    }
+
+    /**
+     * 调度器中的任务与数据库是否不一致
+     */
+    private static boolean isChanged(Scheduler scheduler, ScheduleJobEntity scheduleJob) throws SchedulerException {
+        Trigger trigger = scheduler.getTrigger(getTriggerKey(scheduleJob.getJobId()));
+        if(!(trigger instanceof CronTrigger)
+                || !Objects.equals(((CronTrigger) trigger).getCronExpression(), scheduleJob.getCronExpression())){
+            return true;
+        }
+
+        //更新过的任务，参数在trigger中，否则在job中
+        Object current = trigger.getJobDataMap().get(ScheduleJobEntity.JOB_PARAM_KEY);
+        if(current == null){
+            JobDetail jobDetail = scheduler.getJobDetail(getJobKey(scheduleJob.getJobId()));
+            current = jobDetail == null ? null : jobDetail.getJobDataMap().get(ScheduleJobEntity.JOB_PARAM_KEY);
+        }
+        if(!(current instanceof ScheduleJobEntity)){
+            return true;
+        }
+
+        ScheduleJobEntity currentJob = (ScheduleJobEntity) current;
+        return !Objects.equals(currentJob.getBeanName(), scheduleJob.getBeanName())
+                || !Objects.equals(currentJob.getParams(), scheduleJob.getParams())
+                || getShardTotal(currentJob) != getShardTotal(scheduleJob);
+    }
+
+    /**
+     * 构建job信息
+     */
+    private static JobDetail buildJobDetail(ScheduleJobEntity scheduleJob) {
+        JobDetail jobDetail = JobBuilder.newJob(ScheduleJob.class).withIdentity(getJobKey(scheduleJob.getJobId())).build();
+
+        //放入参数，运行时的方法可以获取
+        jobDetail.getJobDataMap().put(ScheduleJobEntity.JOB_PARAM_KEY, scheduleJob);
+
+        return jobDetail;
+    }
+
+    /**
+     * 按cronExpression表达式构建一个新的trigger
+     */
+    private static CronTrigger buildCronTrigger(ScheduleJobEntity scheduleJob) {
+        //表达式调度构建器
+        CronScheduleBuilder scheduleBuilder = CronScheduleBuilder.cronSchedule(scheduleJob.getCronExpression())
+        		.withMisfireHandlingInstructionDoNothing();
+
+        return TriggerBuilder.newTrigger().withIdentity(getTriggerKey(scheduleJob.getJobId())).withSchedule(scheduleBuilder).build();
+    }
+
     /**
      * 更新定时任务
      */
@@ -112,6 +221,34 @@ public class ScheduleUtils {
         }
     }
 
+    /**
+     * 分发分片任务，每个分片生成一个立即执行的触发器，由集群中空闲的节点竞争获取执行
+     */
+    public static void runShards(Scheduler scheduler, ScheduleJobEntity scheduleJob, String fireId) {
+        try {
+            int shardTotal = getShardTotal(scheduleJob);
+            for(int shardIndex = 0; shardIndex < shardTotal; shardIndex++){
+                //参数
+                JobDataMap dataMap = new JobDataMap();
+                dataMap.put(ScheduleJobEntity.JOB_PARAM_KEY, scheduleJob);
+                dataMap.put(ScheduleJobEntity.JOB_SHARD_KEY, shardIndex);
+                dataMap.put(ScheduleJobEntity.JOB_FIRE_KEY, fireId);
+
+                scheduler.triggerJob(getJobKey(scheduleJob.getJobId()), dataMap);
+            }
+        } catch (SchedulerException e) {
+            throw new RRException("分发分片任务失败", e);
+        }
+    }
+
+    /**
+     * 获取分片总数，未配置则不分片
+     */
+    public static int getShardTotal(ScheduleJobEntity scheduleJob) {
+        Integer shardTotal = scheduleJob.getShardTotal();
+        return shardTotal == null || shardTotal < 1 ? 1 : shardTotal;
+    }
+
     /**
      * 暂停任务
      */
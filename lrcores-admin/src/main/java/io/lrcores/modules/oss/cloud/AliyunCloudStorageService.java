@@ -1,10 +1,12 @@
 package io.lrcores.modules.oss.cloud;
 
 import com.aliyun.oss.OSSClient;
+import com.aliyun.oss.model.*;
 import io.lrcores.common.exception.RRException;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.List;
 
 /**
  * 阿里云存储
@@ -13,8 +15,9 @@ import java.io.InputStream;
 public class AliyunCloudStorageService extends CloudStorageService {
     private OSSClient client;
 
-    public AliyunCloudStorageService(CloudStorageConfig config){
+    public AliyunCloudStorageService(CloudStorageConfig config, MultipartUploadPool uploadPool){
         this.config = config;
+        this.uploadPool = uploadPool;
 
         //初始化
         init();
@@ -27,20 +30,126 @@ public class AliyunCloudStorageService extends CloudStorageService {
 
     @Override
     public String upload(byte[] data, String path) {
-        return upload(new ByteArrayInputStream(data), path);
+        return upload(new ByteArrayInputStream(data), data.length, path);
+    }
+
+    @Override
+    public String upload(InputStream inputStream, long size, String path) {
+        //不超过一个分片，直接上传，不占用分片缓冲区
+        if(size >= 0 && size < uploadPool.getPartSize()){
+            try {
+                ObjectMetadata metadata = new ObjectMetadata();
+                metadata.setContentLength(size);
+                client.putObject(config.getAliyunBucketName(), path, inputStream, metadata);
+            } catch (Exception e){
+                throw new RRException("上传文件失败，请检查配置信息", e);
+            }
+
+            return config.getAliyunDomain() + "/" + path;
+        }
+
+        return upload(inputStream, path);
     }
 
     @Override
     public String upload(InputStream inputStream, String path) {
+        byte[] firstPart = uploadPool.acquire();
+        int length;
+        try {
+            length = MultipartUploadPool.fill(inputStream, firstPart);
+        } catch (RuntimeException e) {
+            uploadPool.release(firstPart);
+            throw e;
+        }
+
+        //不超过一个分片，直接上传
+        if(length < firstPart.length){
+            try {
+                ObjectMetadata metadata = new ObjectMetadata();
+                metadata.setContentLength(length);
+                client.putObject(config.getAliyunBucketName(), path, new ByteArrayInputStream(firstPart, 0, length), metadata);
+            } catch (Exception e){
+                throw new RRException("上传文件失败，请检查配置信息", e);
+            } finally {
+                uploadPool.release(firstPart);
+            }
+
+            return config.getAliyunDomain() + "/" + path;
+        }
+
+        //分片上传
+        String uploadId;
+        try {
+            uploadId = initiateMultipartUpload(path);
+        } catch (RuntimeException e){
+            uploadPool.release(firstPart);
+            throw e;
+        }
+
         try {
-            client.putObject(config.getAliyunBucketName(), path, inputStream);
+            List<PartETag> partETags = uploadPool.uploadParts(inputStream, firstPart, (partNumber, data, partLength) -> {
+                UploadPartRequest request = new UploadPartRequest();
+                request.setBucketName(config.getAliyunBucketName());
+                request.setKey(path);
+                request.setUploadId(uploadId);
+                request.setPartNumber(partNumber);
+                request.setPartSize(partLength);
+                request.setInputStream(new ByteArrayInputStream(data, 0, partLength));
+                return client.uploadPart(request).getPartETag();
+            });
+
+            client.completeMultipartUpload(new CompleteMultipartUploadRequest(config.getAliyunBucketName(), path, uploadId, partETags));
         } catch (Exception e){
+            abortMultipartUpload(path, uploadId);
+            if(e instanceof RRException){
+                throw (RRException) e;
+            }
             throw new RRException("上传文件失败，请检查配置信息", e);
         }
 
         return config.getAliyunDomain() + "/" + path;
     }
 
+    /**
+     * 初始化分片上传
+     */
+    private String initiateMultipartUpload(String path) {
+        try {
+            return client.initiateMultipartUpload(new InitiateMultipartUploadRequest(config.getAliyunBucketName(), path)).getUploadId();
+        } catch (Exception e){
+            throw new RRException("上传文件失败，请检查配置信息", e);
+        }
+    }
+
+    /**
+     * 取消分片上传，清理已上传的分片
+     */
+    private void abortMultipartUpload(String path, String uploadId) {
+        try {
+            client.abortMultipartUpload(new AbortMultipartUploadRequest(config.getAliyunBucketName(), path, uploadId));
+        } catch (Exception ignored){
+        }
+    }
+
+    @Override
+    public void delete(String url) {
+        String path = getPathByUrl(url, config.getAliyunDomain());
+        if(path == null){
+            return;
+        }
+
+        try {
+            client.deleteObject(config.getAliyunBucketName(), path);
+        } catch (Exception e){
+            throw new RRException("删除文件失败，请检查配置信息", e);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        client.shutdown();
+    }
+
     @Override
     public String uploadSuffix(byte[] data, String suffix) {
         return upload(data, getPath(config.getAliyunPrefix(), suffix));
@@ -50,4 +159,9 @@ public class AliyunCloudStorageService extends CloudStorageService {
     public String uploadSuffix(InputStream inputStream, String suffix) {
         return upload(inputStream, getPath(config.getAliyunPrefix(), suffix));
     }
+
+    @Override
+    public String uploadSuffix(InputStream inputStream, long size, String suffix) {
+        return upload(inputStream, size, getPath(config.getAliyunPrefix(), suffix));
+    }
 }
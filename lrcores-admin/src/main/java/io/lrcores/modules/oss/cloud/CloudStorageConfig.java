@@ -2,6 +2,7 @@ package io.lrcores.modules.oss.cloud;
 
 
 import io.lrcores.common.validator.group.AliyunGroup;
+import io.lrcores.common.validator.group.LocalGroup;
 import io.lrcores.common.validator.group.QcloudGroup;
 import io.lrcores.common.validator.group.QiniuGroup;
 import lombok.Data;
@@ -21,9 +22,9 @@ public class CloudStorageConfig implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * 类型 1：七牛  2：阿里云  3：腾讯云
+     * 类型 1：七牛  2：阿里云  3：腾讯云  4：本地存储
      */
-    @Range(min=1, max=3, message = "类型错误")
+    @Range(min=1, max=4, message = "类型错误")
     private Integer type;
 
     @NotBlank(message="七牛绑定的域名不能为空", groups = QiniuGroup.class)
@@ -65,4 +66,11 @@ public class CloudStorageConfig implements Serializable {
     @NotBlank(message="所属地区不能为空", groups = QcloudGroup.class)
     private String qcloudRegion;
 
+    @NotBlank(message="本地存储访问域名不能为空", groups = LocalGroup.class)
+    @URL(message = "本地存储访问域名格式不正确", groups = LocalGroup.class)
+    private String localDomain;
+    private String localPrefix;
+    @NotBlank(message="本地存储目录不能为空", groups = LocalGroup.class)
+    private String localPath;
+
 }
@@ -0,0 +1,63 @@
+package io.lrcores.modules.oss.cloud;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 云存储上传统计，按服务商统计上传次数、失败次数、耗时
+ *
+ */
+public final class CloudStorageMetrics {
+    private final static Map<String, CloudStorageMetrics> METRICS = new ConcurrentHashMap<>();
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final AtomicLong maxTime = new AtomicLong();
+
+    private CloudStorageMetrics() {
+    }
+
+    /**
+     * 获取服务商的统计
+     */
+    public static CloudStorageMetrics get(String provider) {
+        return METRICS.computeIfAbsent(provider, key -> new CloudStorageMetrics());
+    }
+
+    /**
+     * 记录一次上传
+     * @param time     耗时(毫秒)
+     * @param success  是否成功
+     */
+    public void record(long time, boolean success) {
+        count.increment();
+        if(!success){
+            errorCount.increment();
+        }
+        totalTime.add(time);
+        maxTime.accumulateAndGet(time, Math::max);
+    }
+
+    /**
+     * 所有服务商的统计数据
+     */
+    public static Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        METRICS.forEach((provider, metrics) -> {
+            long count = metrics.count.sum();
+            long totalTime = metrics.totalTime.sum();
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", count);
+            map.put("errorCount", metrics.errorCount.sum());
+            map.put("avgTime", count == 0 ? 0 : totalTime / count);
+            map.put("maxTime", metrics.maxTime.get());
+            result.put(provider, map);
+        });
+        return result;
+    }
+}
@@ -14,6 +14,8 @@ import java.util.UUID;
 public abstract class CloudStorageService {
     /** 云存储配置信息 */
     CloudStorageConfig config;
+    /** 分片上传缓冲池 */
+    MultipartUploadPool uploadPool;
 
     /**
      * 文件路径
@@ -66,4 +68,59 @@ public abstract class CloudStorageService {
      */
     public abstract String uploadSuffix(InputStream inputStream, String suffix);
 
+    /**
+     * 文件上传，已知文件大小时使用，小文件不需要分片
+     * @param inputStream   字节流
+     * @param size          文件大小，未知时为-1
+     * @param path          文件路径，包含文件名
+     * @return              返回http地址
+     */
+    public String upload(InputStream inputStream, long size, String path) {
+        return upload(inputStream, path);
+    }
+
+    /**
+     * 文件上传，已知文件大小时使用，小文件不需要分片
+     * @param inputStream  字节流
+     * @param size         文件大小，未知时为-1
+     * @param suffix       后缀
+     * @return             返回http地址
+     */
+    public String uploadSuffix(InputStream inputStream, long size, String suffix) {
+        return uploadSuffix(inputStream, suffix);
+    }
+
+    /**
+     * 删除文件
+     * @param url   上传时返回的http地址
+     */
+    public abstract void delete(String url);
+
+    /**
+     * 根据http地址获取文件路径
+     * @param url     http地址
+     * @param domain  绑定的域名
+     * @return        文件路径，不是该域名下的文件时返回null
+     */
+    String getPathByUrl(String url, String domain) {
+        if(StringUtils.isBlank(url) || StringUtils.isBlank(domain) || !url.startsWith(domain + "/")){
+            return null;
+        }
+        return url.substring(domain.length() + 1);
+    }
+
+    /**
+     * 云存储类型
+     */
+    public Integer getType() {
+        return config.getType();
+    }
+
+    /**
+     * 关闭客户端，释放连接池等资源
+     */
+    public void shutdown() {
+
+    }
+
 }
@@ -0,0 +1,126 @@
+package io.lrcores.modules.oss.cloud;
+
+import io.lrcores.common.exception.RRException;
+import io.lrcores.common.utils.DateUtils;
+import org.apache.commons.lang.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * 本地文件存储
+ *
+ */
+public class LocalCloudStorageService extends CloudStorageService {
+    private Path root;
+
+    public LocalCloudStorageService(CloudStorageConfig config, MultipartUploadPool uploadPool){
+        this.config = config;
+        this.uploadPool = uploadPool;
+
+        //初始化
+        init();
+    }
+
+    private void init(){
+        root = getRoot(config);
+    }
+
+    /**
+     * 本地存储根目录
+     */
+    public static Path getRoot(CloudStorageConfig config) {
+        if(StringUtils.isBlank(config.getLocalPath())){
+            throw new RRException("本地存储目录未配置");
+        }
+        return Paths.get(config.getLocalPath()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * 文件路径，按日期、文件名哈希分目录，避免单个目录文件过多
+     */
+    @Override
+    public String getPath(String prefix, String suffix) {
+        //生成uuid
+        String uuid = UUID.randomUUID().toString().replaceAll("-", "");
+        //文件路径
+        String path = DateUtils.format(new Date(), "yyyyMMdd") + "/" + uuid.substring(0, 2) + "/" + uuid;
+
+        if(StringUtils.isNotBlank(prefix)){
+            path = prefix + "/" + path;
+        }
+
+        return path + suffix;
+    }
+
+    @Override
+    public String upload(byte[] data, String path) {
+        return upload(new ByteArrayInputStream(data), path);
+    }
+
+    @Override
+    public String upload(InputStream inputStream, String path) {
+        Path target = root.resolve(path).normalize();
+        if(!target.startsWith(root)){
+            throw new RRException("非法的文件路径");
+        }
+
+        //先写临时文件，写完再改名，避免下载到写了一半的文件
+        Path tempFile = null;
+        try {
+            Files.createDirectories(target.getParent());
+            tempFile = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RRException("上传文件失败，请检查本地存储目录", e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+
+        return config.getLocalDomain() + "/" + path;
+    }
+
+    @Override
+    public void delete(String url) {
+        String path = getPathByUrl(url, config.getLocalDomain());
+        if(path == null){
+            return;
+        }
+
+        Path target = root.resolve(path).normalize();
+        if(!target.startsWith(root)){
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(target);
+        } catch (IOException e) {
+            throw new RRException("删除文件失败", e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if(path == null){
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public String uploadSuffix(byte[] data, String suffix) {
+        return upload(data, getPath(config.getLocalPrefix(), suffix));
+    }
+
+    @Override
+    public String uploadSuffix(InputStream inputStream, String suffix) {
+        return upload(inputStream, getPath(config.getLocalPrefix(), suffix));
+    }
+}
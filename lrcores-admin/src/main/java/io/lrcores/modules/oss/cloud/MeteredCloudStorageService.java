@@ -0,0 +1,143 @@
+package io.lrcores.modules.oss.cloud;
+
+import io.lrcores.common.exception.RRException;
+
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 云存储包装类，统计上传耗时、失败次数，配置变更后等待进行中的上传结束再关闭客户端
+ *
+ */
+class MeteredCloudStorageService extends CloudStorageService {
+    private final CloudStorageService delegate;
+    private final CloudStorageMetrics metrics;
+    /** 进行中的上传数 */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean shutdown = new AtomicBoolean(false);
+    private volatile boolean closed;
+
+    MeteredCloudStorageService(CloudStorageService delegate, String provider) {
+        this.delegate = delegate;
+        this.config = delegate.config;
+        this.uploadPool = delegate.uploadPool;
+        this.metrics = CloudStorageMetrics.get(provider);
+    }
+
+    @Override
+    public String getPath(String prefix, String suffix) {
+        return delegate.getPath(prefix, suffix);
+    }
+
+    @Override
+    public String upload(byte[] data, String path) {
+        return invoke(service -> service.upload(data, path));
+    }
+
+    @Override
+    public String uploadSuffix(byte[] data, String suffix) {
+        return invoke(service -> service.uploadSuffix(data, suffix));
+    }
+
+    @Override
+    public String upload(InputStream inputStream, String path) {
+        return invoke(service -> service.upload(inputStream, path));
+    }
+
+    @Override
+    public String uploadSuffix(InputStream inputStream, String suffix) {
+        return invoke(service -> service.uploadSuffix(inputStream, suffix));
+    }
+
+    @Override
+    public String upload(InputStream inputStream, long size, String path) {
+        return invoke(service -> service.upload(inputStream, size, path));
+    }
+
+    @Override
+    public String uploadSuffix(InputStream inputStream, long size, String suffix) {
+        return invoke(service -> service.uploadSuffix(inputStream, size, suffix));
+    }
+
+    @Override
+    public void delete(String url) {
+        if(!acquire()){
+            current().delete(url);
+            return ;
+        }
+        try {
+            delegate.delete(url);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * 执行上传，客户端已关闭(获取后配置发生变更)时，使用新的客户端重新执行
+     */
+    private String invoke(Function<CloudStorageService, String> upload) {
+        if(!acquire()){
+            return upload.apply(current());
+        }
+
+        long startTime = System.currentTimeMillis();
+        boolean success = false;
+        try {
+            String url = upload.apply(delegate);
+            success = true;
+            return url;
+        } finally {
+            metrics.record(System.currentTimeMillis() - startTime, success);
+            release();
+        }
+    }
+
+    /**
+     * 登记进行中的操作，已关闭时返回false；先计数再检查，与close()的先标记再检查配合，不会使用已关闭的客户端
+     */
+    private boolean acquire() {
+        inFlight.incrementAndGet();
+        if(closed){
+            release();
+            return false;
+        }
+        return true;
+    }
+
+    private void release() {
+        if(inFlight.decrementAndGet() == 0 && closed){
+            shutdown();
+        }
+    }
+
+    /**
+     * 新的客户端，云存储类型已变更时不能继续，否则文件记录的类型与实际存储不一致
+     */
+    private CloudStorageService current() {
+        CloudStorageService service = OSSFactory.build();
+        if(service == null || !Objects.equals(service.getType(), getType())){
+            throw new RRException("云存储配置已变更，请重新上传");
+        }
+        return service;
+    }
+
+    /**
+     * 配置变更，不再接收新的上传，进行中的上传结束后关闭客户端
+     */
+    void close() {
+        closed = true;
+        if(inFlight.get() == 0){
+            shutdown();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if(shutdown.compareAndSet(false, true)){
+            delegate.shutdown();
+        }
+    }
+}
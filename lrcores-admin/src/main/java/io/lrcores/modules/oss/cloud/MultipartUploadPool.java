@@ -0,0 +1,202 @@
+package io.lrcores.modules.oss.cloud;
+
+import io.lrcores.common.exception.RRException;
+import org.apache.commons.io.IOUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分片上传
+ *
+ * 分片缓冲区循环复用，缓冲区总数固定，同时在内存中的分片数不会超过缓冲区总数；
+ * 分片由上传线程池并发上传，线程数可配置
+ *
+ */
+@Component("multipartUploadPool")
+public class MultipartUploadPool implements DisposableBean {
+    /**
+     * 分片大小，单位：MB
+     */
+    @Value("${lrcores.oss.part-size:8}")
+    private int partSize;
+    /**
+     * 分片缓冲区总数
+     */
+    @Value("${lrcores.oss.part-buffers:16}")
+    private int partBuffers;
+    /**
+     * 分片并发上传线程数
+     */
+    @Value("${lrcores.oss.upload-concurrency:4}")
+    private int concurrency;
+
+    private BlockingQueue<byte[]> freeBuffers;
+    private Semaphore bufferPermits;
+    private ExecutorService executor;
+
+    /**
+     * 分片上传处理
+     */
+    public interface PartHandler<T> {
+        /**
+         * 上传分片
+         * @param partNumber  分片序号，从1开始
+         * @param data        分片数据
+         * @param length      分片数据长度
+         * @return            分片上传结果
+         */
+        T uploadPart(int partNumber, byte[] data, int length) throws Exception;
+    }
+
+    @PostConstruct
+    public void init(){
+        freeBuffers = new ArrayBlockingQueue<>(partBuffers);
+        bufferPermits = new Semaphore(partBuffers);
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "oss-upload-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 分片大小，单位：字节，小于分片大小的文件直接上传，不占用缓冲区
+     */
+    public int getPartSize() {
+        return partSize * 1024 * 1024;
+    }
+
+    /**
+     * 获取分片缓冲区，缓冲区用完时阻塞等待
+     */
+    public byte[] acquire() {
+        try {
+            bufferPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RRException("上传文件失败", e);
+        }
+
+        byte[] buffer = freeBuffers.poll();
+        return buffer == null ? new byte[getPartSize()] : buffer;
+    }
+
+    /**
+     * 归还分片缓冲区
+     */
+    public void release(byte[] buffer) {
+        freeBuffers.offer(buffer);
+        bufferPermits.release();
+    }
+
+    /**
+     * 从流中读满一个分片
+     * @return  读取的字节数，小于缓冲区长度表示流已读完
+     */
+    public static int fill(InputStream inputStream, byte[] buffer) {
+        try {
+            return IOUtils.read(inputStream, buffer);
+        } catch (IOException e) {
+            throw new RRException("读取上传文件失败", e);
+        }
+    }
+
+    /**
+     * 分片并发上传
+     *
+     * @param inputStream   剩余字节流
+     * @param firstPart     已读取的第一个分片，由本方法负责归还
+     * @param handler       分片上传处理
+     * @return              按分片序号排列的上传结果
+     */
+    public <T> List<T> uploadParts(InputStream inputStream, byte[] firstPart, PartHandler<T> handler) {
+        List<Future<T>> futures = new ArrayList<>();
+        //任一分片失败后，未开始的分片不再上传
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        try {
+            byte[] buffer = firstPart;
+            int length = firstPart.length;
+            int partNumber = 1;
+            while (true) {
+                futures.add(submit(partNumber++, buffer, length, handler, aborted));
+                if (length < buffer.length) {
+                    break;
+                }
+
+                buffer = acquire();
+                length = fill(inputStream, buffer);
+                if (length == 0) {
+                    release(buffer);
+                    break;
+                }
+            }
+
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            abort(futures, aborted);
+            throw new RRException("上传文件失败，请检查配置信息", e.getCause());
+        } catch (RRException e) {
+            abort(futures, aborted);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(futures, aborted);
+            throw new RRException("上传文件失败", e);
+        } catch (Exception e) {
+            abort(futures, aborted);
+            throw new RRException("上传文件失败", e);
+        }
+    }
+
+    private <T> Future<T> submit(int partNumber, byte[] buffer, int length, PartHandler<T> handler, AtomicBoolean aborted) {
+        try {
+            return executor.submit(() -> {
+                try {
+                    if (aborted.get()) {
+                        return null;
+                    }
+                    return handler.uploadPart(partNumber, buffer, length);
+                } finally {
+                    release(buffer);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            release(buffer);
+            throw e;
+        }
+    }
+
+    /**
+     * 等待已提交的分片结束，保证缓冲区全部归还
+     */
+    private void abort(List<? extends Future<?>> futures, AtomicBoolean aborted) {
+        aborted.set(true);
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -6,30 +6,90 @@ import io.lrcores.common.utils.Constant;
 import io.lrcores.modules.sys.service.SysConfigService;
 import io.lrcores.common.utils.SpringContextUtils;
 
+import java.util.Objects;
+
 /**
  * 文件上传Factory
  *
+ * 客户端按配置版本缓存复用，配置变更后重新创建，旧客户端在进行中的上传结束后关闭
+ *
  */
 public final class OSSFactory {
     private static SysConfigService sysConfigService;
+    private static MultipartUploadPool uploadPool;
+    private static volatile Holder holder;
 
     static {
         OSSFactory.sysConfigService = (SysConfigService) SpringContextUtils.getBean("sysConfigService");
+        OSSFactory.uploadPool = (MultipartUploadPool) SpringContextUtils.getBean("multipartUploadPool");
     }
 
     public static CloudStorageService build(){
-        //获取云存储配置信息
-        CloudStorageConfig config = sysConfigService.getConfigObject(ConfigConstant.CLOUD_STORAGE_CONFIG_KEY, CloudStorageConfig.class);
+        //配置内容即为配置版本
+        String version = sysConfigService.getValue(ConfigConstant.CLOUD_STORAGE_CONFIG_KEY);
+
+        Holder current = holder;
+        if(current != null && Objects.equals(current.version, version)){
+            return current.service;
+        }
+
+        synchronized (OSSFactory.class) {
+            current = holder;
+            if(current != null && Objects.equals(current.version, version)){
+                return current.service;
+            }
+
+            //获取云存储配置信息
+            CloudStorageConfig config = sysConfigService.getConfigObject(ConfigConstant.CLOUD_STORAGE_CONFIG_KEY, CloudStorageConfig.class);
+            MeteredCloudStorageService service = create(config);
+            holder = service == null ? null : new Holder(version, service);
+
+            if(current != null){
+                current.service.close();
+            }
+            return service;
+        }
+    }
+
+    /**
+     * 配置变更时调用，关闭当前客户端，下次上传按新配置创建
+     */
+    public static void reload(){
+        synchronized (OSSFactory.class) {
+            Holder current = holder;
+            holder = null;
+            if(current != null){
+                current.service.close();
+            }
+        }
+    }
+
+    private static MeteredCloudStorageService create(CloudStorageConfig config){
+        if(config.getType() == null){
+            return null;
+        }
 
         if(config.getType() == Constant.CloudService.QINIU.getValue()){
-            return new QiniuCloudStorageService(config);
+            return new MeteredCloudStorageService(new QiniuCloudStorageService(config, uploadPool), "qiniu");
         }else if(config.getType() == Constant.CloudService.ALIYUN.getValue()){
-            return new AliyunCloudStorageService(config);
+            return new MeteredCloudStorageService(new AliyunCloudStorageService(config, uploadPool), "aliyun");
         }else if(config.getType() == Constant.CloudService.QCLOUD.getValue()){
-            return new QcloudCloudStorageService(config);
+            return new MeteredCloudStorageService(new QcloudCloudStorageService(config, uploadPool), "qcloud");
+        }else if(config.getType() == Constant.CloudService.LOCAL.getValue()){
+            return new MeteredCloudStorageService(new LocalCloudStorageService(config, uploadPool), "local");
         }
 
         return null;
     }
 
+    private static class Holder {
+        private final String version;
+        private final MeteredCloudStorageService service;
+
+        Holder(String version, MeteredCloudStorageService service) {
+            this.version = version;
+            this.service = service;
+        }
+    }
+
 }
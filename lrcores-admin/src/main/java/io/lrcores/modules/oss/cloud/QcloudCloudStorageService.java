@@ -3,12 +3,14 @@ package io.lrcores.modules.oss.cloud;
 
 import com.qcloud.cos.COSClient;
 import com.qcloud.cos.ClientConfig;
+import com.qcloud.cos.request.DelFileRequest;
 import com.qcloud.cos.request.UploadFileRequest;
 import com.qcloud.cos.sign.Credentials;
 import io.lrcores.common.exception.RRException;
 import net.sf.json.JSONObject;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.FileUtils;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -19,8 +21,9 @@ import java.io.InputStream;
 public class QcloudCloudStorageService extends CloudStorageService {
     private COSClient client;
 
-    public QcloudCloudStorageService(CloudStorageConfig config){
+    public QcloudCloudStorageService(CloudStorageConfig config, MultipartUploadPool uploadPool){
         this.config = config;
+        this.uploadPool = uploadPool;
 
         //初始化
         init();
@@ -47,6 +50,10 @@ public class QcloudCloudStorageService extends CloudStorageService {
 
         //上传到腾讯云
         UploadFileRequest request = new UploadFileRequest(config.getQcloudBucketName(), path, data);
+        return upload(request, path);
+    }
+
+    private String upload(UploadFileRequest request, String path) {
         String response = client.uploadFile(request);
 
         JSONObject jsonObject = JSONObject.fromObject(response);
@@ -59,14 +66,46 @@ public class QcloudCloudStorageService extends CloudStorageService {
 
     @Override
     public String upload(InputStream inputStream, String path) {
+        //腾讯云必需要以"/"开头
+        if(!path.startsWith("/")) {
+            path = "/" + path;
+        }
+
+        //SDK不支持流式上传，先写入临时文件，再由SDK从文件分片上传，避免整个文件读入内存
+        File tempFile = null;
     	try {
-            byte[] data = IOUtils.toByteArray(inputStream);
-            return this.upload(data, path);
+            tempFile = File.createTempFile("qcloud-upload-", ".tmp");
+            FileUtils.copyInputStreamToFile(inputStream, tempFile);
+
+            UploadFileRequest request = new UploadFileRequest(config.getQcloudBucketName(), path, tempFile.getAbsolutePath());
+            return upload(request, path);
         } catch (IOException e) {
             throw new RRException("上传文件失败", e);
+        } finally {
+            FileUtils.deleteQuietly(tempFile);
+        }
+    }
+
+    @Override
+    public void delete(String url) {
+        String path = getPathByUrl(url, config.getQcloudDomain());
+        if(path == null){
+            return;
+        }
+
+        String response = client.delFile(new DelFileRequest(config.getQcloudBucketName(), "/" + path));
+
+        JSONObject jsonObject = JSONObject.fromObject(response);
+        if(jsonObject.getInt("code") != 0) {
+            throw new RRException("删除文件失败，" + jsonObject.getString("message"));
         }
     }
 
+    @Override
+    public void shutdown() {
+        client.shutdown();
+    }
+
     @Override
     public String uploadSuffix(byte[] data, String suffix) {
         return upload(data, getPath(config.getQcloudPrefix(), suffix));
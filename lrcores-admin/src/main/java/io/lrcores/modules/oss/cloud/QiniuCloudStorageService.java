@@ -2,13 +2,12 @@ package io.lrcores.modules.oss.cloud;
 
 import com.qiniu.common.Zone;
 import com.qiniu.http.Response;
+import com.qiniu.storage.BucketManager;
 import com.qiniu.storage.Configuration;
 import com.qiniu.storage.UploadManager;
 import com.qiniu.util.Auth;
 import io.lrcores.common.exception.RRException;
-import org.apache.commons.io.IOUtils;
 
-import java.io.IOException;
 import java.io.InputStream;
 
 /**
@@ -17,25 +16,35 @@ import java.io.InputStream;
  */
 public class QiniuCloudStorageService extends CloudStorageService {
     private UploadManager uploadManager;
-    private String token;
+    private BucketManager bucketManager;
+    private Auth auth;
 
-    public QiniuCloudStorageService(CloudStorageConfig config){
+    public QiniuCloudStorageService(CloudStorageConfig config, MultipartUploadPool uploadPool){
         this.config = config;
+        this.uploadPool = uploadPool;
 
         //初始化
         init();
     }
 
     private void init(){
-        uploadManager = new UploadManager(new Configuration(Zone.autoZone()));
-        token = Auth.create(config.getQiniuAccessKey(), config.getQiniuSecretKey()).
-                uploadToken(config.getQiniuBucketName());
+        Configuration configuration = new Configuration(Zone.autoZone());
+        uploadManager = new UploadManager(configuration);
+        auth = Auth.create(config.getQiniuAccessKey(), config.getQiniuSecretKey());
+        bucketManager = new BucketManager(auth, configuration);
+    }
+
+    /**
+     * 上传凭证有过期时间，客户端长期复用，每次上传重新签发
+     */
+    private String getToken() {
+        return auth.uploadToken(config.getQiniuBucketName());
     }
 
     @Override
     public String upload(byte[] data, String path) {
         try {
-            Response res = uploadManager.put(data, path, token);
+            Response res = uploadManager.put(data, path, getToken());
             if (!res.isOK()) {
                 throw new RuntimeException("上传七牛出错：" + res.toString());
             }
@@ -48,11 +57,30 @@ public class QiniuCloudStorageService extends CloudStorageService {
 
     @Override
     public String upload(InputStream inputStream, String path) {
+        //流式分块上传，SDK按块读取，不会把整个文件读入内存
         try {
-            byte[] data = IOUtils.toByteArray(inputStream);
-            return this.upload(data, path);
-        } catch (IOException e) {
-            throw new RRException("上传文件失败", e);
+            Response res = uploadManager.put(inputStream, path, getToken(), null, null);
+            if (!res.isOK()) {
+                throw new RuntimeException("上传七牛出错：" + res.toString());
+            }
+        } catch (Exception e) {
+            throw new RRException("上传文件失败，请核对七牛配置信息", e);
+        }
+
+        return config.getQiniuDomain() + "/" + path;
+    }
+
+    @Override
+    public void delete(String url) {
+        String path = getPathByUrl(url, config.getQiniuDomain());
+        if(path == null){
+            return;
+        }
+
+        try {
+            bucketManager.delete(config.getQiniuBucketName(), path);
+        } catch (Exception e) {
+            throw new RRException("删除文件失败，请核对七牛配置信息", e);
         }
     }
 
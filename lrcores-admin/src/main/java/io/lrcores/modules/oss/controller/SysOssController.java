@@ -1,18 +1,19 @@
 package io.lrcores.modules.oss.controller;
 
-import com.google.gson.Gson;
 import io.lrcores.common.exception.RRException;
 import io.lrcores.common.utils.ConfigConstant;
 import io.lrcores.common.utils.Constant;
+import io.lrcores.common.utils.JsonCodec;
 import io.lrcores.common.utils.PageUtils;
 import io.lrcores.common.utils.R;
 import io.lrcores.common.validator.ValidatorUtils;
 import io.lrcores.common.validator.group.AliyunGroup;
+import io.lrcores.common.validator.group.LocalGroup;
 import io.lrcores.common.validator.group.QcloudGroup;
 import io.lrcores.common.validator.group.QiniuGroup;
 import io.lrcores.modules.oss.cloud.CloudStorageConfig;
+import io.lrcores.modules.oss.cloud.CloudStorageMetrics;
 import io.lrcores.modules.oss.cloud.OSSFactory;
-import io.lrcores.modules.oss.entity.SysOssEntity;
 import io.lrcores.modules.oss.service.SysOssService;
 import io.lrcores.modules.sys.service.SysConfigService;
 import org.apache.shiro.authz.annotation.RequiresPermissions;
@@ -23,8 +24,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Arrays;
-import java.util.Date;
 import java.util.Map;
 
 /**
@@ -83,14 +82,28 @@ public class SysOssController {
 		}else if(config.getType() == Constant.CloudService.QCLOUD.getValue()){
 			//校验腾讯云数据
 			ValidatorUtils.validateEntity(config, QcloudGroup.class);
+		}else if(config.getType() == Constant.CloudService.LOCAL.getValue()){
+			//校验本地存储数据
+			ValidatorUtils.validateEntity(config, LocalGroup.class);
 		}
 
-        sysConfigService.updateValueByKey(KEY, new Gson().toJson(config));
+        sysConfigService.updateValueByKey(KEY, JsonCodec.toJson(config));
+        OSSFactory.reload();
 
 		return R.ok();
 	}
 
 
+	/**
+	 * 上传统计信息
+	 */
+	@RequestMapping("/metrics")
+	@RequiresPermissions("sys:oss:all")
+	public R metrics(){
+		return R.ok().put("metrics", CloudStorageMetrics.snapshot());
+	}
+
+
 	/**
 	 * 上传文件
 	 */
@@ -102,14 +115,7 @@ public class SysOssController {
 		}
 
 		//上传文件
-		String suffix = file.getOriginalFilename().substring(file.getOriginalFilename().lastIndexOf("."));
-		String url = OSSFactory.build().uploadSuffix(file.getBytes(), suffix);
-
-		//保存文件信息
-		SysOssEntity ossEntity = new SysOssEntity();
-		ossEntity.setUrl(url);
-		ossEntity.setCreateDate(new Date());
-		sysOssService.save(ossEntity);
+		String url = sysOssService.upload(file);
 
 		return R.ok().put("url", url);
 	}
@@ -121,7 +127,7 @@ public class SysOssController {
 	@RequestMapping("/delete")
 	@RequiresPermissions("sys:oss:all")
 	public R delete(@RequestBody Long[] ids){
-		sysOssService.removeByIds(Arrays.asList(ids));
+		sysOssService.deleteBatch(ids);
 
 		return R.ok();
 	}
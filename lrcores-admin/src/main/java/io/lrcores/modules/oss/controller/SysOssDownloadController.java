@@ -0,0 +1,201 @@
+package io.lrcores.modules.oss.controller;
+
+import io.lrcores.common.utils.ConfigConstant;
+import io.lrcores.common.utils.Constant;
+import io.lrcores.modules.oss.cloud.CloudStorageConfig;
+import io.lrcores.modules.oss.cloud.LocalCloudStorageService;
+import io.lrcores.modules.sys.service.SysConfigService;
+import org.apache.commons.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * 本地存储文件下载
+ *
+ * 支持Range断点续传、ETag/Last-Modified缓存校验，容器支持sendfile时由容器零拷贝发送，
+ * 否则使用FileChannel.transferTo发送
+ *
+ */
+@RestController
+@RequestMapping("sys/oss/download")
+public class SysOssDownloadController {
+    private final static String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private final static String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private final static String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private final static String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private SysConfigService sysConfigService;
+
+    @GetMapping("/**")
+    public void download(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        //匿名访问，只在当前使用本地存储时开放
+        CloudStorageConfig config = sysConfigService.getConfigObject(ConfigConstant.CLOUD_STORAGE_CONFIG_KEY, CloudStorageConfig.class);
+        if(!Objects.equals(config.getType(), Constant.CloudService.LOCAL.getValue()) || StringUtils.isBlank(config.getLocalPath())){
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        //文件路径，防止跳出存储目录
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String pathWithinMapping = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String path = pathMatcher.extractPathWithinPattern(pattern, pathWithinMapping);
+
+        Path root = LocalCloudStorageService.getRoot(config);
+        Path file = root.resolve(path).normalize();
+        if(StringUtils.isBlank(path) || !file.startsWith(root) || !Files.isRegularFile(file)){
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "max-age=31536000");
+
+        //缓存校验
+        if(isNotModified(request, etag, lastModified)){
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        String contentType = request.getServletContext().getMimeType(file.getFileName().toString());
+        response.setContentType(contentType == null ? "application/octet-stream" : contentType);
+
+        //Range请求，只支持单个区间，多个区间时返回整个文件
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if(range != null && (ifRange == null || ifRange.equals(etag))){
+            long[] bytes = parseRange(range, length);
+            if(bytes == null){
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if(bytes.length == 2){
+                start = bytes[0];
+                end = bytes[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if(count == 0){
+            return;
+        }
+
+        //容器零拷贝发送
+        if(Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))){
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while(count > 0){
+                long transferred = channel.transferTo(position, count, target);
+                if(transferred <= 0){
+                    break;
+                }
+                position += transferred;
+                count -= transferred;
+            }
+        }
+    }
+
+    /**
+     * If-None-Match优先，没有时校验If-Modified-Since
+     */
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if(ifNoneMatch != null){
+            for(String tag : ifNoneMatch.split(",")){
+                tag = tag.trim();
+                if("*".equals(tag) || tag.equals(etag) || tag.equals("W/" + etag)){
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        //HTTP日期精确到秒
+        return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * 解析Range请求头
+     * @return  null：区间无效；长度为0：忽略Range，返回整个文件；否则为[start, end]
+     */
+    private long[] parseRange(String range, long length) {
+        if(!range.startsWith("bytes=") || range.contains(",")){
+            return new long[0];
+        }
+
+        String spec = range.substring("bytes=".length()).trim();
+        int index = spec.indexOf('-');
+        if(index < 0){
+            return new long[0];
+        }
+
+        try {
+            String first = spec.substring(0, index).trim();
+            String last = spec.substring(index + 1).trim();
+            long start;
+            long end;
+            if(first.isEmpty()){
+                //最后N个字节
+                long suffixLength = Long.parseLong(last);
+                if(suffixLength <= 0){
+                    return null;
+                }
+                start = Math.max(0, length - suffixLength);
+                end = length - 1;
+            }else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+
+            if(start < 0 || start >= length || start > end){
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.lrcores.modules.oss.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import io.lrcores.modules.oss.entity.SysOssContentEntity;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 文件内容，开启去重时相同内容的文件共用
+ *
+ */
+@Mapper
+public interface SysOssContentDao extends BaseMapper<SysOssContentEntity> {
+
+	/**
+	 * 引用次数加1，记录已被删除时返回0
+	 */
+	int increaseRefCount(Long id);
+
+	/**
+	 * 引用次数减1
+	 */
+	int decreaseRefCount(Long id);
+
+	/**
+	 * 删除引用次数为0的记录
+	 */
+	int deleteUnreferenced(Long id);
+}
@@ -0,0 +1,43 @@
+package io.lrcores.modules.oss.entity;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+
+/**
+ * 文件内容，开启去重时相同内容的文件共用一条记录，每次上传在sys_oss中各有一条记录
+ *
+ */
+@Data
+@TableName("sys_oss_content")
+public class SysOssContentEntity implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@TableId
+	private Long id;
+	/**
+	 * URL地址
+	 */
+	private String url;
+	/**
+	 * 文件内容SHA-256
+	 */
+	private String hash;
+	/**
+	 * 云存储类型，相同内容的文件只在同一云存储中复用
+	 */
+	private Integer type;
+	/**
+	 * 引用次数，即sys_oss中的记录数，为0时删除云存储中的文件
+	 */
+	private Integer refCount;
+	/**
+	 * 创建时间
+	 */
+	private Date createDate;
+
+}
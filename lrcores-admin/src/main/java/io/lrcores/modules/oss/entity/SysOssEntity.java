@@ -25,6 +25,10 @@ public class SysOssEntity implements Serializable {
 	 * URL地址
 	 */
 	private String url;
+	/**
+	 * 文件内容ID，开启去重时相同内容的文件共用，未去重的为空
+	 */
+	private Long contentId;
 	/**
 	 * 创建时间
 	 */
@@ -4,6 +4,9 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import io.lrcores.modules.oss.entity.SysOssEntity;
 import io.lrcores.common.utils.PageUtils;
 
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -13,4 +16,15 @@ import java.util.Map;
 public interface SysOssService extends IService<SysOssEntity> {
 
 	PageUtils queryPage(Map<String, Object> params);
+
+	/**
+	 * 上传文件，开启去重时相同内容的文件只上传一次
+	 * @return  文件http地址
+	 */
+	String upload(MultipartFile file) throws IOException;
+
+	/**
+	 * 删除文件，去重的文件引用次数为0时才删除云存储中的文件
+	 */
+	void deleteBatch(Long[] ids);
 }
@@ -1,19 +1,49 @@
 package io.lrcores.modules.oss.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.lrcores.common.exception.RRException;
 import io.lrcores.common.utils.Query;
+import io.lrcores.modules.oss.cloud.CloudStorageService;
+import io.lrcores.modules.oss.cloud.OSSFactory;
+import io.lrcores.modules.oss.dao.SysOssContentDao;
 import io.lrcores.modules.oss.dao.SysOssDao;
+import io.lrcores.modules.oss.entity.SysOssContentEntity;
 import io.lrcores.modules.oss.entity.SysOssEntity;
 import io.lrcores.modules.oss.service.SysOssService;
 import io.lrcores.common.utils.PageUtils;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 
 @Service("sysOssService")
 public class SysOssServiceImpl extends ServiceImpl<SysOssDao, SysOssEntity> implements SysOssService {
+	private Logger logger = LoggerFactory.getLogger(getClass());
+	@Autowired
+	private SysOssContentDao sysOssContentDao;
+	/**
+	 * 是否开启文件去重  true开启   false关闭
+	 */
+	@Value("${lrcores.oss.dedup:false}")
+	private boolean dedup;
+	/**
+	 * 并发上传相同内容的文件时，唯一索引冲突后的重试次数
+	 */
+	private final static int DUPLICATE_RETRY = 3;
 
 	@Override
 	public PageUtils queryPage(Map<String, Object> params) {
@@ -24,4 +54,128 @@ public class SysOssServiceImpl extends ServiceImpl<SysOssDao, SysOssEntity> impl
 		return new PageUtils(page);
 	}
 
+	@Override
+	public String upload(MultipartFile file) throws IOException {
+		String suffix = file.getOriginalFilename().substring(file.getOriginalFilename().lastIndexOf("."));
+		CloudStorageService storageService = OSSFactory.build();
+		if(storageService == null){
+			throw new RRException("云存储配置错误");
+		}
+
+		//上传文件已在磁盘临时文件中，先流式计算哈希，命中则不再上传
+		String hash = null;
+		if(dedup){
+			try (InputStream inputStream = file.getInputStream()) {
+				hash = DigestUtils.sha256Hex(inputStream);
+			}
+		}
+
+		//未去重，直接上传
+		if(hash == null){
+			String url;
+			try (InputStream inputStream = file.getInputStream()) {
+				url = storageService.uploadSuffix(inputStream, file.getSize(), suffix);
+			}
+			return saveOss(url, null);
+		}
+
+		String url = null;
+		for(int retry = 0; ; retry++){
+			SysOssContentEntity exist = queryByHash(hash, storageService.getType());
+			if(exist != null){
+				//并发上传了相同内容的文件，删除本次上传的文件
+				if(url != null){
+					storageService.delete(url);
+				}
+				return saveOss(exist.getUrl(), exist.getId());
+			}
+
+			//上传文件
+			if(url == null){
+				try (InputStream inputStream = file.getInputStream()) {
+					url = storageService.uploadSuffix(inputStream, file.getSize(), suffix);
+				}
+			}
+
+			//保存文件内容，hash、type唯一，并发上传相同内容的文件时只有一个能保存成功
+			SysOssContentEntity content = new SysOssContentEntity();
+			content.setUrl(url);
+			content.setHash(hash);
+			content.setType(storageService.getType());
+			content.setRefCount(1);
+			content.setCreateDate(new Date());
+			try {
+				sysOssContentDao.insert(content);
+				return saveOss(url, content.getId());
+			} catch (DuplicateKeyException e) {
+				//已保存的记录引用次数为0、正在删除时也会冲突，重新查询
+				if(retry >= DUPLICATE_RETRY){
+					storageService.delete(url);
+					throw e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 每次上传保存一条记录，删除时只删除这一次上传
+	 */
+	private String saveOss(String url, Long contentId) {
+		SysOssEntity ossEntity = new SysOssEntity();
+		ossEntity.setUrl(url);
+		ossEntity.setContentId(contentId);
+		ossEntity.setCreateDate(new Date());
+		this.save(ossEntity);
+		return url;
+	}
+
+	/**
+	 * 查询同一云存储中相同内容的文件，并增加引用次数
+	 */
+	private SysOssContentEntity queryByHash(String hash, Integer type) {
+		List<SysOssContentEntity> list = sysOssContentDao.selectList(new QueryWrapper<SysOssContentEntity>()
+				.eq("hash", hash).eq("type", type).gt("ref_count", 0));
+		for(SysOssContentEntity entity : list){
+			//引用次数加1成功，说明没有被并发删除
+			if(sysOssContentDao.increaseRefCount(entity.getId()) > 0){
+				return entity;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void deleteBatch(Long[] ids) {
+		CloudStorageService storageService = null;
+		for(Long id : ids){
+			SysOssEntity entity = this.getById(id);
+			if(entity == null){
+				continue;
+			}
+
+			//每次上传一条记录，删除一条即删除一次上传
+			this.removeById(id);
+
+			//未去重的文件，只删除记录
+			SysOssContentEntity content = entity.getContentId() == null ? null : sysOssContentDao.selectById(entity.getContentId());
+			if(content == null){
+				continue;
+			}
+
+			sysOssContentDao.decreaseRefCount(content.getId());
+			//没有引用了，删除文件内容记录及云存储中的文件
+			if(sysOssContentDao.deleteUnreferenced(content.getId()) > 0){
+				if(storageService == null){
+					storageService = OSSFactory.build();
+				}
+				//云存储已切换的，不能用当前配置删除
+				if(storageService != null && Objects.equals(storageService.getType(), content.getType())){
+					storageService.delete(content.getUrl());
+				}else{
+					logger.warn("云存储已切换，文件未删除，云存储类型：{}，URL：{}", content.getType(), content.getUrl());
+				}
+			}
+		}
+	}
+
 }
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,6 +35,16 @@ public class SysDictController {
     }
 
 
+    /**
+     * 根据字典类型查询，页面下拉框等使用，登录即可访问
+     */
+    @RequestMapping("/type/{type}")
+    public R type(@PathVariable("type") String type){
+        List<SysDictEntity> list = sysDictService.queryByType(type);
+
+        return R.ok().put("list", list);
+    }
+
     /**
      * 信息
      */
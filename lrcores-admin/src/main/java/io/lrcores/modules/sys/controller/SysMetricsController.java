@@ -0,0 +1,28 @@
+package io.lrcores.modules.sys.controller;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import org.apache.shiro.authz.annotation.RequiresPermissions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Prometheus指标，登录后按权限访问，不需要配置访问令牌
+ *
+ */
+@RestController
+@RequestMapping("/sys/metrics")
+@ConditionalOnProperty(prefix = "lrcores.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SysMetricsController {
+	@Autowired
+	private PrometheusMeterRegistry registry;
+
+	@GetMapping(value = "/prometheus", produces = TextFormat.CONTENT_TYPE_004)
+	@RequiresPermissions("sys:metrics:prometheus")
+	public String prometheus(){
+		return registry.scrape();
+	}
+}
@@ -7,6 +7,8 @@ import io.lrcores.common.utils.RedisUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.*;
+
 /**
  * 系统配置Redis
  *
@@ -24,13 +26,43 @@ public class SysConfigRedis {
         redisUtils.set(key, config);
     }
 
+    /**
+     * 批量保存，一次pipeline完成
+     */
+    public void saveOrUpdate(Collection<SysConfigEntity> configs) {
+        Map<String, SysConfigEntity> map = new HashMap<>(configs.size() * 4 / 3 + 1);
+        for(SysConfigEntity config : configs){
+            map.put(RedisKeys.getSysConfigKey(config.getParamKey()), config);
+        }
+        redisUtils.multiSet(map);
+    }
+
     public void delete(String configKey) {
         String key = RedisKeys.getSysConfigKey(configKey);
         redisUtils.delete(key);
     }
 
+    public void delete(Collection<String> configKeys) {
+        List<String> keys = new ArrayList<>(configKeys.size());
+        for(String configKey : configKeys){
+            keys.add(RedisKeys.getSysConfigKey(configKey));
+        }
+        redisUtils.delete(keys);
+    }
+
     public SysConfigEntity get(String configKey){
         String key = RedisKeys.getSysConfigKey(configKey);
         return redisUtils.get(key, SysConfigEntity.class);
     }
+
+    /**
+     * 批量获取，一次请求完成，与configKeys顺序一致，未缓存的为null
+     */
+    public List<SysConfigEntity> get(Collection<String> configKeys){
+        List<String> keys = new ArrayList<>(configKeys.size());
+        for(String configKey : configKeys){
+            keys.add(RedisKeys.getSysConfigKey(configKey));
+        }
+        return redisUtils.multiGet(keys, SysConfigEntity.class);
+    }
 }
@@ -0,0 +1,58 @@
+package io.lrcores.modules.sys.redis;
+
+
+import io.lrcores.common.aspect.CacheAspect;
+import io.lrcores.common.utils.RedisBatch;
+import io.lrcores.common.utils.RedisKeys;
+import io.lrcores.common.utils.RedisUtils;
+import io.lrcores.modules.sys.entity.SysMenuEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 导航菜单Redis
+ *
+ * 所有导航菜单、用户菜单ID分开缓存，key与缓存名称CACHE_MENU、CACHE_USER_MENU一致，随@CacheEvict清除
+ *
+ */
+@Component
+public class SysMenuRedis {
+    /**  所有导航菜单(目录、菜单)  */
+    private final static String NAV_KEY = CacheAspect.KEY_PREFIX + RedisKeys.CACHE_MENU + ":nav";
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    /**
+     * 所有导航菜单和用户菜单ID在一次pipeline中读取，未缓存的为null
+     * @param userId  为null时只读取导航菜单
+     * @return  [导航菜单, 用户菜单ID]
+     */
+    public List<Object> getNav(Long userId) {
+        RedisBatch batch = new RedisBatch().get(NAV_KEY, List.class);
+        if(userId != null){
+            batch.get(getUserKey(userId), List.class);
+        }
+        return redisUtils.execute(batch);
+    }
+
+    /**
+     * 一次pipeline保存，为null的不保存
+     */
+    public void saveNav(Long userId, List<SysMenuEntity> menuList, List<Long> menuIdList) {
+        RedisBatch batch = new RedisBatch();
+        if(menuList != null){
+            batch.set(NAV_KEY, menuList);
+        }
+        if(menuIdList != null){
+            batch.set(getUserKey(userId), menuIdList);
+        }
+        redisUtils.execute(batch);
+    }
+
+    private String getUserKey(Long userId) {
+        return CacheAspect.KEY_PREFIX + RedisKeys.CACHE_USER_MENU + ":" + userId;
+    }
+}
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import io.lrcores.modules.sys.entity.SysConfigEntity;
 import io.lrcores.common.utils.PageUtils;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -41,6 +42,14 @@ public interface SysConfigService extends IService<SysConfigEntity> {
 	 */
 	String getValue(String key);
 
+	/**
+	 * 根据key批量获取value，Redis一次读取，未缓存的一次查询数据库
+	 *
+	 * @param keys          key列表
+	 * @return  key对应的value，不存在的key不包含在内
+	 */
+	Map<String, String> getValues(Collection<String> keys);
+
 	/**
 	 * 根据key，获取value的Object对象
 	 * @param key    key
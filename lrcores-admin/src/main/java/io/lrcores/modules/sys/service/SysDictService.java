@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import io.lrcores.modules.sys.entity.SysDictEntity;
 import io.lrcores.common.utils.PageUtils;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -13,5 +14,10 @@ import java.util.Map;
 public interface SysDictService extends IService<SysDictEntity> {
 
     PageUtils queryPage(Map<String, Object> params);
+
+    /**
+     * 根据字典类型，查询字典列表
+     */
+    List<SysDictEntity> queryByType(String type);
 }
 
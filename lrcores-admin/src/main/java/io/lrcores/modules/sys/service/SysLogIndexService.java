@@ -0,0 +1,34 @@
+package io.lrcores.modules.sys.service;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import io.lrcores.modules.sys.entity.SysLogEntity;
+
+import java.util.Date;
+
+/**
+ * 系统日志全文索引
+ *
+ */
+public interface SysLogIndexService {
+
+    /**
+     * 是否开启全文索引
+     */
+    boolean isEnabled();
+
+    /**
+     * 索引日志，重复索引时覆盖
+     */
+    void index(SysLogEntity log);
+
+    /**
+     * 搜索日志，按ID倒序返回日志ID
+     *
+     * @param keyword   关键字，空格分隔的多个词都要匹配，词尾*为前缀匹配，field:词 指定字段(username、operation、method、params)
+     * @param startTime 开始时间，可以为null
+     * @param endTime   结束时间，可以为null
+     * @param offset    跳过的记录数
+     * @param limit     返回的记录数
+     */
+    IPage<Long> search(String keyword, Date startTime, Date endTime, int offset, int limit);
+}
@@ -3,7 +3,7 @@ package io.lrcores.modules.sys.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import com.google.gson.Gson;
+import io.lrcores.common.utils.JsonCodec;
 import io.lrcores.common.utils.Query;
 import io.lrcores.modules.sys.dao.SysConfigDao;
 import io.lrcores.modules.sys.entity.SysConfigEntity;
@@ -16,8 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
-import java.util.Map;
+import java.util.*;
 
 @Service("sysConfigService")
 public class SysConfigServiceImpl extends ServiceImpl<SysConfigDao, SysConfigEntity> implements SysConfigService {
@@ -61,30 +60,55 @@ public class SysConfigServiceImpl extends ServiceImpl<SysConfigDao, SysConfigEnt
 	@Override
 	@Transactional(rollbackFor = Exception.class)
 	public void deleteBatch(Long[] ids) {
-		for(Long id : ids){
-			SysConfigEntity config = this.getById(id);
-			sysConfigRedis.delete(config.getParamKey());
+		List<String> keys = new ArrayList<>(ids.length);
+		for(SysConfigEntity config : this.listByIds(Arrays.asList(ids))){
+			keys.add(config.getParamKey());
 		}
+		sysConfigRedis.delete(keys);
 
 		this.removeByIds(Arrays.asList(ids));
 	}
 
 	@Override
 	public String getValue(String key) {
-		SysConfigEntity config = sysConfigRedis.get(key);
-		if(config == null){
-			config = baseMapper.queryByKey(key);
-			sysConfigRedis.saveOrUpdate(config);
+		return getValues(Collections.singletonList(key)).get(key);
+	}
+
+	@Override
+	public Map<String, String> getValues(Collection<String> keys) {
+		Map<String, String> values = new HashMap<>(keys.size() * 4 / 3 + 1);
+		if(keys.isEmpty()){
+			return values;
 		}
 
-		return config == null ? null : config.getParamValue();
+		List<String> missKeys = new ArrayList<>();
+		Iterator<SysConfigEntity> iterator = sysConfigRedis.get(keys).iterator();
+		for(String key : keys){
+			SysConfigEntity config = iterator.next();
+			if(config == null){
+				missKeys.add(key);
+			}else{
+				values.put(key, config.getParamValue());
+			}
+		}
+		if(missKeys.isEmpty()){
+			return values;
+		}
+
+		//未缓存的一次查询，一次写入Redis
+		List<SysConfigEntity> configList = this.list(new QueryWrapper<SysConfigEntity>().in("param_key", missKeys));
+		sysConfigRedis.saveOrUpdate(configList);
+		for(SysConfigEntity config : configList){
+			values.put(config.getParamKey(), config.getParamValue());
+		}
+		return values;
 	}
 
 	@Override
 	public <T> T getConfigObject(String key, Class<T> clazz) {
 		String value = getValue(key);
 		if(StringUtils.isNotBlank(value)){
-			return new Gson().fromJson(value, clazz);
+			return JsonCodec.parse(value, clazz);
 		}
 
 		try {
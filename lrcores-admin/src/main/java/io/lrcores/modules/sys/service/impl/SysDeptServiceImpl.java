@@ -1,12 +1,16 @@
 package io.lrcores.modules.sys.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.lrcores.common.annotation.CacheEvict;
+import io.lrcores.common.annotation.Cached;
 import io.lrcores.common.annotation.DataFilter;
+import io.lrcores.common.utils.RedisKeys;
 import io.lrcores.modules.sys.dao.SysDeptDao;
 import io.lrcores.modules.sys.entity.SysDeptEntity;
 import io.lrcores.modules.sys.service.SysDeptService;
 import org.springframework.stereotype.Service;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +31,7 @@ public class SysDeptServiceImpl extends ServiceImpl<SysDeptDao, SysDeptEntity> i
 	}
 
 	@Override
+	@Cached(value = RedisKeys.CACHE_SUB_DEPT, local = true)
 	public List<Long> getSubDeptIdList(Long deptId){
 		//部门及子部门ID列表
 		List<Long> deptIdList = new ArrayList<>();
@@ -38,6 +43,24 @@ public class SysDeptServiceImpl extends ServiceImpl<SysDeptDao, SysDeptEntity> i
 		return deptIdList;
 	}
 
+	@Override
+	@CacheEvict(value = RedisKeys.CACHE_SUB_DEPT, allEntries = true)
+	public boolean save(SysDeptEntity entity) {
+		return super.save(entity);
+	}
+
+	@Override
+	@CacheEvict(value = RedisKeys.CACHE_SUB_DEPT, allEntries = true)
+	public boolean updateById(SysDeptEntity entity) {
+		return super.updateById(entity);
+	}
+
+	@Override
+	@CacheEvict(value = RedisKeys.CACHE_SUB_DEPT, allEntries = true)
+	public boolean removeById(Serializable id) {
+		return super.removeById(id);
+	}
+
 	/**
 	 * 递归
 	 */
@@ -3,7 +3,10 @@ package io.lrcores.modules.sys.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.lrcores.common.annotation.CacheEvict;
+import io.lrcores.common.annotation.Cached;
 import io.lrcores.common.utils.Query;
+import io.lrcores.common.utils.RedisKeys;
 import io.lrcores.modules.sys.dao.SysDictDao;
 import io.lrcores.modules.sys.entity.SysDictEntity;
 import io.lrcores.modules.sys.service.SysDictService;
@@ -11,6 +14,9 @@ import io.lrcores.common.utils.PageUtils;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.stereotype.Service;
 
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 
@@ -30,4 +36,28 @@ public class SysDictServiceImpl extends ServiceImpl<SysDictDao, SysDictEntity> i
         return new PageUtils(page);
     }
 
+    @Override
+    @Cached(RedisKeys.CACHE_DICT)
+    public List<SysDictEntity> queryByType(String type) {
+        return this.list(new QueryWrapper<SysDictEntity>().eq("type", type).orderByAsc("order_num"));
+    }
+
+    @Override
+    @CacheEvict(value = RedisKeys.CACHE_DICT, allEntries = true)
+    public boolean save(SysDictEntity entity) {
+        return super.save(entity);
+    }
+
+    @Override
+    @CacheEvict(value = RedisKeys.CACHE_DICT, allEntries = true)
+    public boolean updateById(SysDictEntity entity) {
+        return super.updateById(entity);
+    }
+
+    @Override
+    @CacheEvict(value = RedisKeys.CACHE_DICT, allEntries = true)
+    public boolean removeByIds(Collection<? extends Serializable> idList) {
+        return super.removeByIds(idList);
+    }
+
 }
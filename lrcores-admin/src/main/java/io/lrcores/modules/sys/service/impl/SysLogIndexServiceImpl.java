@@ -0,0 +1,294 @@
+package io.lrcores.modules.sys.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import io.lrcores.common.exception.RRException;
+import io.lrcores.modules.sys.dao.SysLogDao;
+import io.lrcores.modules.sys.entity.SysLogEntity;
+import io.lrcores.modules.sys.service.SysLogIndexService;
+import org.apache.commons.lang.ArrayUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 系统日志全文索引，基于Lucene，索引保存在本地目录
+ *
+ * 日志写入时直接索引，同时定时从数据库同步新日志(集群中其他节点写入的日志、停机期间的日志)
+ *
+ */
+@Service("sysLogIndexService")
+public class SysLogIndexServiceImpl implements SysLogIndexService {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private static final String FIELD_UID = "uid";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_CREATE_DATE = "createDate";
+    private static final String[] TEXT_FIELDS = {"username", "operation", "method", "params"};
+    private static final String SYNC_ID = "syncId";
+    private static final int SYNC_BATCH = 1000;
+    /**
+     * 同步时回退60秒的ID，避免漏掉其他节点稍晚写入的日志(ID高位为毫秒时间戳，左移22位)
+     */
+    private static final long SYNC_MARGIN = 60 * 1000L << 22;
+
+    @Value("${lrcores.log-index.enabled:false}")
+    private boolean enabled;
+    @Value("${lrcores.log-index.path:./data/log-index}")
+    private String path;
+    @Value("${lrcores.log-index.sync-interval:30}")
+    private long syncInterval;
+
+    @Autowired
+    private SysLogDao sysLogDao;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ScheduledExecutorService syncExecutor;
+    private volatile long syncId;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if(!enabled){
+            return;
+        }
+
+        writer = new IndexWriter(FSDirectory.open(Paths.get(path)), new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+        for(Map.Entry<String, String> entry : writer.getLiveCommitData()){
+            if(SYNC_ID.equals(entry.getKey())){
+                syncId = Long.parseLong(entry.getValue());
+            }
+        }
+
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sys-log-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncExecutor.scheduleWithFixedDelay(this::sync, 0, syncInterval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        if(!enabled){
+            return;
+        }
+        syncExecutor.shutdownNow();
+        searcherManager.close();
+        writer.close();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void index(SysLogEntity log) {
+        if(!enabled || log.getId() == null){
+            return;
+        }
+
+        try {
+            writer.updateDocument(new Term(FIELD_UID, log.getId().toString()), toDocument(log));
+        } catch (IOException e) {
+            logger.error("index sys log error, id: {}", log.getId(), e);
+        }
+    }
+
+    @Override
+    public IPage<Long> search(String keyword, Date startTime, Date endTime, int offset, int limit) {
+        if(!enabled){
+            throw new RRException("日志全文索引未开启");
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for(String word : StringUtils.split(keyword)){
+            Query query = parseWord(word);
+            if(query != null){
+                builder.add(query, BooleanClause.Occur.MUST);
+            }
+        }
+        if(startTime != null || endTime != null){
+            long start = startTime == null ? Long.MIN_VALUE : startTime.getTime();
+            long end = endTime == null ? Long.MAX_VALUE : endTime.getTime();
+            builder.add(LongPoint.newRangeQuery(FIELD_CREATE_DATE, start, end), BooleanClause.Occur.FILTER);
+        }
+        BooleanQuery query = builder.build();
+
+        Page<Long> page = new Page<>(offset / Math.max(limit, 1) + 1, limit);
+        if(query.clauses().isEmpty()){
+            return page;
+        }
+
+        try {
+            searcherManager.maybeRefresh();
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                Sort sort = new Sort(new SortField(FIELD_ID, SortField.Type.LONG, true));
+                TopFieldDocs docs = searcher.search(query, offset + limit, sort);
+
+                List<Long> ids = new ArrayList<>(limit);
+                for(int i = offset; i < docs.scoreDocs.length; i++){
+                    Document document = searcher.doc(docs.scoreDocs[i].doc);
+                    ids.add(document.getField(FIELD_ID).numericValue().longValue());
+                }
+                page.setRecords(ids);
+                page.setTotal(searcher.count(query));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RRException("日志搜索失败", e);
+        }
+        return page;
+    }
+
+    /**
+     * 解析单个搜索词，field:词 指定字段，词尾*为前缀匹配，否则分词后按短语匹配
+     */
+    private Query parseWord(String word) {
+        String[] fields = TEXT_FIELDS;
+        int index = word.indexOf(':');
+        if(index > 0 && ArrayUtils.contains(TEXT_FIELDS, word.substring(0, index))){
+            fields = new String[]{word.substring(0, index)};
+            word = word.substring(index + 1);
+        }
+
+        boolean prefix = word.endsWith("*");
+        if(prefix){
+            word = word.substring(0, word.length() - 1);
+        }
+        List<String> terms = analyze(word);
+        if(terms.isEmpty()){
+            return null;
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for(String field : fields){
+            Query query;
+            if(prefix && terms.size() == 1){
+                query = new PrefixQuery(new Term(field, terms.get(0)));
+            }else if(terms.size() == 1){
+                query = new TermQuery(new Term(field, terms.get(0)));
+            }else {
+                query = new PhraseQuery(field, terms.toArray(new String[0]));
+            }
+            builder.add(query, BooleanClause.Occur.SHOULD);
+        }
+        return builder.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream("", normalize(text))) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()){
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new RRException("日志搜索失败", e);
+        }
+        return terms;
+    }
+
+    /**
+     * 类名、方法名按.拆分，可以按类名、方法名搜索
+     */
+    private static String normalize(String text) {
+        return text == null ? "" : text.replace('.', ' ');
+    }
+
+    private Document toDocument(SysLogEntity log) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_UID, log.getId().toString(), Field.Store.NO));
+        document.add(new StoredField(FIELD_ID, log.getId()));
+        document.add(new NumericDocValuesField(FIELD_ID, log.getId()));
+        if(log.getCreateDate() != null){
+            document.add(new LongPoint(FIELD_CREATE_DATE, log.getCreateDate().getTime()));
+        }
+        document.add(new TextField("username", normalize(log.getUsername()), Field.Store.NO));
+        document.add(new TextField("operation", normalize(log.getOperation()), Field.Store.NO));
+        document.add(new TextField("method", normalize(log.getMethod()), Field.Store.NO));
+        document.add(new TextField("params", normalize(log.getParams()), Field.Store.NO));
+        return document;
+    }
+
+    /**
+     * 从数据库同步新日志，按ID分批读取
+     */
+    private void sync() {
+        try {
+            long from = syncId - SYNC_MARGIN;
+            long maxId = syncId;
+            while (true){
+                IPage<SysLogEntity> page = sysLogDao.selectPage(new Page<>(1, SYNC_BATCH, false),
+                        new QueryWrapper<SysLogEntity>().gt("id", from).orderByAsc("id"));
+                for(SysLogEntity log : page.getRecords()){
+                    writer.updateDocument(new Term(FIELD_UID, log.getId().toString()), toDocument(log));
+                    maxId = Math.max(maxId, log.getId());
+                }
+                if(page.getRecords().size() < SYNC_BATCH){
+                    break;
+                }
+                from = page.getRecords().get(page.getRecords().size() - 1).getId();
+            }
+
+            if(writer.hasUncommittedChanges() || maxId != syncId){
+                syncId = maxId;
+                writer.setLiveCommitData(Collections.singletonMap(SYNC_ID, String.valueOf(maxId)).entrySet());
+                writer.commit();
+                searcherManager.maybeRefresh();
+            }
+        } catch (Exception e) {
+            logger.error("sync sys log index error", e);
+        }
+    }
+}
@@ -3,29 +3,79 @@ package io.lrcores.modules.sys.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.lrcores.common.utils.DateUtils;
 import io.lrcores.common.utils.Query;
 import io.lrcores.modules.sys.dao.SysLogDao;
 import io.lrcores.modules.sys.entity.SysLogEntity;
+import io.lrcores.modules.sys.service.SysLogIndexService;
 import io.lrcores.modules.sys.service.SysLogService;
 import io.lrcores.common.utils.PageUtils;
 import org.apache.commons.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
+import java.util.*;
 
 
 @Service("sysLogService")
 public class SysLogServiceImpl extends ServiceImpl<SysLogDao, SysLogEntity> implements SysLogService {
+    @Autowired
+    private SysLogIndexService sysLogIndexService;
 
     @Override
     public PageUtils queryPage(Map<String, Object> params) {
         String key = (String)params.get("key");
+        Date startTime = DateUtils.stringToDate((String)params.get("startTime"), DateUtils.DATE_TIME_PATTERN);
+        Date endTime = DateUtils.stringToDate((String)params.get("endTime"), DateUtils.DATE_TIME_PATTERN);
+
+        //开启全文索引时，按用户名、操作、方法、参数搜索
+        if(sysLogIndexService.isEnabled() && StringUtils.isNotBlank(key)){
+            return searchPage(params, key, startTime, endTime);
+        }
+
+        QueryWrapper<SysLogEntity> wrapper = new QueryWrapper<SysLogEntity>()
+            .like(StringUtils.isNotBlank(key),"username", key)
+            .ge(startTime != null, "create_date", startTime)
+            .le(endTime != null, "create_date", endTime);
+
+        //keyset分页，深度翻页不扫描前面的记录
+        if(Query.isKeyset(params)){
+            long totalCount = Query.isCount(params) ? this.count(wrapper) : -1;
+            IPage<SysLogEntity> page = this.page(new Query<SysLogEntity>().getKeysetPage(params, wrapper, "id", "id", false), wrapper);
+            return PageUtils.keyset(page, totalCount, null, SysLogEntity::getId);
+        }
 
         IPage<SysLogEntity> page = this.page(
             new Query<SysLogEntity>().getPage(params),
-            new QueryWrapper<SysLogEntity>().like(StringUtils.isNotBlank(key),"username", key)
+            wrapper
         );
 
         return new PageUtils(page);
     }
+
+    /**
+     * 全文索引查询日志ID，再按主键查询日志
+     */
+    private PageUtils searchPage(Map<String, Object> params, String key, Date startTime, Date endTime) {
+        IPage<SysLogEntity> page = new Query<SysLogEntity>().getPage(params);
+        int limit = (int)page.getSize();
+        int currPage = (int)page.getCurrent();
+
+        IPage<Long> ids = sysLogIndexService.search(key, startTime, endTime, (currPage - 1) * limit, limit);
+        List<SysLogEntity> list = new ArrayList<>();
+        if(!ids.getRecords().isEmpty()){
+            Map<Long, SysLogEntity> logMap = new HashMap<>();
+            for(SysLogEntity log : this.listByIds(ids.getRecords())){
+                logMap.put(log.getId(), log);
+            }
+            for(Long id : ids.getRecords()){
+                SysLogEntity log = logMap.get(id);
+                if(log != null){
+                    list.add(log);
+                }
+            }
+        }
+
+        return new PageUtils(list, (int)ids.getTotal(), limit, currPage);
+    }
 }
@@ -2,18 +2,21 @@ package io.lrcores.modules.sys.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.lrcores.common.annotation.CacheEvict;
+import io.lrcores.common.annotation.Cached;
 import io.lrcores.common.utils.Constant;
+import io.lrcores.common.utils.RedisKeys;
 import io.lrcores.modules.sys.dao.SysMenuDao;
 import io.lrcores.modules.sys.entity.SysMenuEntity;
 import io.lrcores.modules.sys.entity.SysRoleMenuEntity;
+import io.lrcores.modules.sys.redis.SysMenuRedis;
 import io.lrcores.modules.sys.service.SysMenuService;
 import io.lrcores.modules.sys.service.SysRoleMenuService;
 import io.lrcores.modules.sys.service.SysUserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 
 @Service("sysMenuService")
@@ -22,6 +25,8 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuDao, SysMenuEntity> i
 	private SysUserService sysUserService;
 	@Autowired
 	private SysRoleMenuService sysRoleMenuService;
+	@Autowired
+	private SysMenuRedis sysMenuRedis;
 
 	@Override
 	public List<SysMenuEntity> queryListParentId(Long parentId, List<Long> menuIdList) {
@@ -45,23 +50,51 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuDao, SysMenuEntity> i
 	}
 
 	@Override
+	@Cached(RedisKeys.CACHE_MENU)
 	public List<SysMenuEntity> queryNotButtonList() {
 		return baseMapper.queryNotButtonList();
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public List<SysMenuEntity> getUserMenuList(Long userId) {
 		//系统管理员，拥有最高权限
-		if(userId == Constant.SUPER_ADMIN){
-			return getAllMenuList(null);
+		boolean admin = userId == Constant.SUPER_ADMIN;
+
+		//所有导航菜单、用户菜单ID一次读取，未缓存的查询后一次写入
+		List<Object> cached = sysMenuRedis.getNav(admin ? null : userId);
+		List<SysMenuEntity> menuList = (List<SysMenuEntity>) cached.get(0);
+		List<Long> menuIdList = admin ? null : (List<Long>) cached.get(1);
+
+		List<SysMenuEntity> loadMenuList = null;
+		if(menuList == null){
+			menuList = loadMenuList = baseMapper.queryNotButtonList();
+		}
+		List<Long> loadMenuIdList = null;
+		if(!admin && menuIdList == null){
+			menuIdList = loadMenuIdList = sysUserService.queryAllMenuId(userId);
+		}
+		if(loadMenuList != null || loadMenuIdList != null){
+			sysMenuRedis.saveNav(userId, loadMenuList, loadMenuIdList);
 		}
 
-		//用户菜单列表
-		List<Long> menuIdList = sysUserService.queryAllMenuId(userId);
-		return getAllMenuList(menuIdList);
+		return getMenuTree(menuList, menuIdList == null ? null : new HashSet<>(menuIdList));
 	}
 
 	@Override
+	@CacheEvict(value = {RedisKeys.CACHE_MENU, RedisKeys.CACHE_USER_MENU}, allEntries = true)
+	public boolean save(SysMenuEntity entity) {
+		return super.save(entity);
+	}
+
+	@Override
+	@CacheEvict(value = {RedisKeys.CACHE_MENU, RedisKeys.CACHE_USER_MENU}, allEntries = true)
+	public boolean updateById(SysMenuEntity entity) {
+		return super.updateById(entity);
+	}
+
+	@Override
+	@CacheEvict(value = {RedisKeys.CACHE_MENU, RedisKeys.CACHE_USER_MENU}, allEntries = true)
 	public void delete(Long menuId){
 		//删除菜单
 		this.removeById(menuId);
@@ -70,31 +103,23 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuDao, SysMenuEntity> i
 	}
 
 	/**
-	 * 获取所有菜单列表
+	 * 按parentId组装菜单树，menuIdSet为null时不过滤
 	 */
-	private List<SysMenuEntity> getAllMenuList(List<Long> menuIdList){
-		//查询根菜单列表
-		List<SysMenuEntity> menuList = queryListParentId(0L, menuIdList);
-		//递归获取子菜单
-		getMenuTreeList(menuList, menuIdList);
-
-		return menuList;
-	}
-
-	/**
-	 * 递归
-	 */
-	private List<SysMenuEntity> getMenuTreeList(List<SysMenuEntity> menuList, List<Long> menuIdList){
-		List<SysMenuEntity> subMenuList = new ArrayList<SysMenuEntity>();
+	private List<SysMenuEntity> getMenuTree(List<SysMenuEntity> menuList, Set<Long> menuIdSet){
+		Map<Long, List<SysMenuEntity>> childrenMap = new HashMap<>();
+		for(SysMenuEntity entity : menuList){
+			if(menuIdSet == null || menuIdSet.contains(entity.getMenuId())){
+				childrenMap.computeIfAbsent(entity.getParentId(), k -> new ArrayList<>()).add(entity);
+			}
+		}
 
 		for(SysMenuEntity entity : menuList){
 			//目录
 			if(entity.getType() == Constant.MenuType.CATALOG.getValue()){
-				entity.setList(getMenuTreeList(queryListParentId(entity.getMenuId(), menuIdList), menuIdList));
+				entity.setList(childrenMap.getOrDefault(entity.getMenuId(), new ArrayList<>()));
 			}
-			subMenuList.add(entity);
 		}
 
-		return subMenuList;
+		return childrenMap.getOrDefault(0L, new ArrayList<>());
 	}
 }
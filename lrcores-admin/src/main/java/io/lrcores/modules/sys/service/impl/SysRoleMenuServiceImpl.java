@@ -1,6 +1,8 @@
 package io.lrcores.modules.sys.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.lrcores.common.annotation.CacheEvict;
+import io.lrcores.common.utils.RedisKeys;
 import io.lrcores.modules.sys.dao.SysRoleMenuDao;
 import io.lrcores.modules.sys.entity.SysRoleMenuEntity;
 import io.lrcores.modules.sys.service.SysRoleMenuService;
@@ -18,6 +20,7 @@ public class SysRoleMenuServiceImpl extends ServiceImpl<SysRoleMenuDao, SysRoleM
 
 	@Override
 	@Transactional(rollbackFor = Exception.class)
+	@CacheEvict(value = RedisKeys.CACHE_USER_MENU, allEntries = true)
 	public void saveOrUpdate(Long roleId, List<Long> menuIdList) {
 		//先删除角色与菜单关系
 		deleteBatch(new Long[]{roleId});
@@ -42,6 +45,7 @@ public class SysRoleMenuServiceImpl extends ServiceImpl<SysRoleMenuDao, SysRoleM
 	}
 
 	@Override
+	@CacheEvict(value = RedisKeys.CACHE_USER_MENU, allEntries = true)
 	public int deleteBatch(Long[] roleIds){
 		return baseMapper.deleteBatch(roleIds);
 	}
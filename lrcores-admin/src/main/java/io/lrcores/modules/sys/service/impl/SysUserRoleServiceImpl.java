@@ -2,6 +2,8 @@ package io.lrcores.modules.sys.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.lrcores.common.annotation.CacheEvict;
+import io.lrcores.common.utils.RedisKeys;
 import io.lrcores.modules.sys.dao.SysUserRoleDao;
 import io.lrcores.modules.sys.entity.SysUserRoleEntity;
 import io.lrcores.modules.sys.service.SysUserRoleService;
@@ -17,6 +19,7 @@ import java.util.List;
 @Service("sysUserRoleService")
 public class SysUserRoleServiceImpl extends ServiceImpl<SysUserRoleDao, SysUserRoleEntity> implements SysUserRoleService {
 	@Override
+	@CacheEvict(value = RedisKeys.CACHE_USER_MENU, key = "#p0")
 	public void saveOrUpdate(Long userId, List<Long> roleIdList) {
 		//先删除用户与角色关系
 		this.remove(new QueryWrapper<SysUserRoleEntity>().eq("user_id", userId));
@@ -42,6 +45,7 @@ public class SysUserRoleServiceImpl extends ServiceImpl<SysUserRoleDao, SysUserR
 	}
 
 	@Override
+	@CacheEvict(value = RedisKeys.CACHE_USER_MENU, allEntries = true)
 	public int deleteBatch(Long[] roleIds){
 		return baseMapper.deleteBatch(roleIds);
 	}
@@ -0,0 +1,105 @@
+package io.lrcores.modules.sys.shiro;
+
+import org.apache.shiro.session.mgt.SimpleSession;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Redis Session，记录修改过的属性，只保存修改的部分
+ *
+ */
+public class RedisSession extends SimpleSession {
+	private static final long serialVersionUID = 1L;
+	/**  修改或删除过的属性  */
+	private transient Set<Object> dirtyAttributes = new HashSet<>();
+	/**  超时时长、停止时间等是否修改过  */
+	private transient boolean metaDirty = true;
+	/**  已保存到Redis的最后访问时间  */
+	private transient long persistedAccessTime;
+
+	public RedisSession() {
+		super();
+	}
+
+	public RedisSession(String host) {
+		super(host);
+	}
+
+	@Override
+	public void setAttribute(Object key, Object value) {
+		super.setAttribute(key, value);
+		dirtyAttributes.add(key);
+	}
+
+	@Override
+	public Object removeAttribute(Object key) {
+		Object value = super.removeAttribute(key);
+		if(value != null){
+			dirtyAttributes.add(key);
+		}
+		return value;
+	}
+
+	@Override
+	public void setTimeout(long timeout) {
+		super.setTimeout(timeout);
+		metaDirty = true;
+	}
+
+	@Override
+	public void setStopTimestamp(Date stopTimestamp) {
+		super.setStopTimestamp(stopTimestamp);
+		metaDirty = true;
+	}
+
+	@Override
+	public void setExpired(boolean expired) {
+		super.setExpired(expired);
+		metaDirty = true;
+	}
+
+	@Override
+	public void setHost(String host) {
+		super.setHost(host);
+		metaDirty = true;
+	}
+
+	@Override
+	public void stop() {
+		super.stop();
+		metaDirty = true;
+	}
+
+	@Override
+	protected void expire() {
+		super.expire();
+		metaDirty = true;
+	}
+
+	Set<Object> getDirtyAttributes() {
+		return dirtyAttributes;
+	}
+
+	boolean isMetaDirty() {
+		return metaDirty;
+	}
+
+	boolean isDirty() {
+		return metaDirty || !dirtyAttributes.isEmpty();
+	}
+
+	long getPersistedAccessTime() {
+		return persistedAccessTime;
+	}
+
+	/**
+	 * 已保存到Redis
+	 */
+	void persisted(long accessTime) {
+		dirtyAttributes.clear();
+		metaDirty = false;
+		persistedAccessTime = accessTime;
+	}
+}
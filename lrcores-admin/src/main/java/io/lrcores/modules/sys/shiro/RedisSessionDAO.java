@@ -0,0 +1,213 @@
+package io.lrcores.modules.sys.shiro;
+
+import io.lrcores.common.serializer.KryoRedisCodec;
+import io.lrcores.common.serializer.RedisSerializers;
+import io.lrcores.common.utils.RedisKeys;
+import org.apache.shiro.session.Session;
+import org.apache.shiro.session.UnknownSessionException;
+import org.apache.shiro.session.mgt.SimpleSession;
+import org.apache.shiro.session.mgt.eis.AbstractSessionDAO;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Session保存到Redis，集群环境使用
+ *
+ * 每个Session一个Hash，属性单独保存，只写入修改过的属性；最后访问时间按间隔写入；
+ * 过期由Redis TTL控制，不需要定时扫描
+ *
+ */
+public class RedisSessionDAO extends AbstractSessionDAO {
+	private final static String ATTRIBUTE_PREFIX = "a:";
+	private final static byte[] START_TIMESTAMP = bytes("_start");
+	private final static byte[] STOP_TIMESTAMP = bytes("_stop");
+	private final static byte[] LAST_ACCESS_TIME = bytes("_access");
+	private final static byte[] TIMEOUT = bytes("_timeout");
+	private final static byte[] EXPIRED = bytes("_expired");
+	private final static byte[] HOST = bytes("_host");
+
+	private final RedisTemplate<String, byte[]> redisTemplate;
+	private final RedisSerializers serializers;
+	/**  最后访问时间写入间隔，单位：毫秒  */
+	private final long touchInterval;
+
+	public RedisSessionDAO(RedisTemplate<String, byte[]> redisTemplate, RedisSerializers serializers, long touchInterval) {
+		this.redisTemplate = redisTemplate;
+		this.serializers = serializers;
+		this.touchInterval = touchInterval;
+		//属性值类型不固定，使用kryo编码保留类型
+		serializers.registerPrefix(RedisKeys.getShiroSessionKey(""), KryoRedisCodec.NAME);
+	}
+
+	@Override
+	protected Serializable doCreate(Session session) {
+		Serializable sessionId = generateSessionId(session);
+		assignSessionId(session, sessionId);
+		save(session, true);
+		return sessionId;
+	}
+
+	@Override
+	protected Session doReadSession(Serializable sessionId) {
+		String key = RedisKeys.getShiroSessionKey(sessionId.toString());
+		Map<byte[], byte[]> hash = redisTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection -> connection.hGetAll(bytes(key)));
+		if(hash == null || hash.isEmpty()){
+			return null;
+		}
+
+		RedisSession session = new RedisSession();
+		session.setId(sessionId);
+		for(Map.Entry<byte[], byte[]> entry : hash.entrySet()){
+			String field = new String(entry.getKey(), StandardCharsets.UTF_8);
+			byte[] value = entry.getValue();
+			if(field.startsWith(ATTRIBUTE_PREFIX)){
+				SessionAttribute attribute = serializers.deserialize(value, SessionAttribute.class);
+				if(attribute != null){
+					session.setAttribute(field.substring(ATTRIBUTE_PREFIX.length()), attribute.value);
+				}
+			}else if(Arrays.equals(entry.getKey(), START_TIMESTAMP)){
+				session.setStartTimestamp(new Date(toLong(value)));
+			}else if(Arrays.equals(entry.getKey(), STOP_TIMESTAMP)){
+				session.setStopTimestamp(new Date(toLong(value)));
+			}else if(Arrays.equals(entry.getKey(), LAST_ACCESS_TIME)){
+				session.setLastAccessTime(new Date(toLong(value)));
+			}else if(Arrays.equals(entry.getKey(), TIMEOUT)){
+				session.setTimeout(toLong(value));
+			}else if(Arrays.equals(entry.getKey(), EXPIRED)){
+				session.setExpired(Boolean.parseBoolean(string(value)));
+			}else if(Arrays.equals(entry.getKey(), HOST)){
+				session.setHost(string(value));
+			}
+		}
+		session.persisted(session.getLastAccessTime().getTime());
+
+		return session;
+	}
+
+	@Override
+	public void update(Session session) throws UnknownSessionException {
+		save(session, false);
+	}
+
+	@Override
+	public void delete(Session session) {
+		if(session == null || session.getId() == null){
+			return;
+		}
+		redisTemplate.delete(RedisKeys.getShiroSessionKey(session.getId().toString()));
+	}
+
+	/**
+	 * Session过期由Redis TTL控制，不需要遍历
+	 */
+	@Override
+	public Collection<Session> getActiveSessions() {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * 保存Session
+	 * @param full  是否保存全部，否则只保存修改过的部分
+	 */
+	private void save(Session session, boolean full) {
+		if(session == null || session.getId() == null){
+			return;
+		}
+
+		RedisSession redisSession = session instanceof RedisSession ? (RedisSession) session : null;
+		full = full || redisSession == null;
+
+		//只有最后访问时间变化，且未达到写入间隔，不写入
+		long accessTime = session.getLastAccessTime().getTime();
+		if(!full && !redisSession.isDirty() && accessTime - redisSession.getPersistedAccessTime() < touchInterval){
+			return;
+		}
+
+		String key = RedisKeys.getShiroSessionKey(session.getId().toString());
+		Map<byte[], byte[]> values = new HashMap<>();
+		List<byte[]> removed = new ArrayList<>();
+
+		values.put(LAST_ACCESS_TIME, bytes(String.valueOf(accessTime)));
+		if(full || redisSession.isMetaDirty()){
+			values.put(START_TIMESTAMP, bytes(String.valueOf(session.getStartTimestamp().getTime())));
+			values.put(TIMEOUT, bytes(String.valueOf(session.getTimeout())));
+			if(session instanceof SimpleSession){
+				SimpleSession simpleSession = (SimpleSession) session;
+				values.put(EXPIRED, bytes(String.valueOf(simpleSession.isExpired())));
+				if(simpleSession.getStopTimestamp() != null){
+					values.put(STOP_TIMESTAMP, bytes(String.valueOf(simpleSession.getStopTimestamp().getTime())));
+				}
+			}
+			if(session.getHost() != null){
+				values.put(HOST, bytes(session.getHost()));
+			}
+		}
+
+		Collection<Object> attributeKeys = full ? session.getAttributeKeys() : redisSession.getDirtyAttributes();
+		for(Object attributeKey : attributeKeys){
+			byte[] field = bytes(ATTRIBUTE_PREFIX + attributeKey);
+			Object value = session.getAttribute(attributeKey);
+			if(value == null){
+				removed.add(field);
+			}else{
+				values.put(field, serializers.serialize(key, new SessionAttribute(value)));
+			}
+		}
+
+		//TTL多留一个写入间隔，保证不早于Session超时
+		long timeout = session.getTimeout();
+		long ttl = timeout < 0 ? -1 : (timeout + touchInterval) / 1000;
+		byte[] rawKey = bytes(key);
+		redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			connection.hMSet(rawKey, values);
+			if(!removed.isEmpty()){
+				connection.hDel(rawKey, removed.toArray(new byte[0][]));
+			}
+			expire(connection, rawKey, ttl);
+			return null;
+		});
+
+		if(redisSession != null){
+			redisSession.persisted(accessTime);
+		}
+	}
+
+	private void expire(RedisConnection connection, byte[] key, long ttl) {
+		if(ttl > 0){
+			connection.expire(key, ttl);
+		}else{
+			connection.persist(key);
+		}
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String string(byte[] value) {
+		return new String(value, StandardCharsets.UTF_8);
+	}
+
+	private static long toLong(byte[] value) {
+		return Long.parseLong(string(value));
+	}
+
+	/**
+	 * 属性值，kryo编码时保留值的类型
+	 */
+	static class SessionAttribute {
+		Object value;
+
+		public SessionAttribute() {
+		}
+
+		SessionAttribute(Object value) {
+			this.value = value;
+		}
+	}
+}
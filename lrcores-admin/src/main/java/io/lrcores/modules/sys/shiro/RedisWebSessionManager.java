@@ -0,0 +1,58 @@
+package io.lrcores.modules.sys.shiro;
+
+import org.apache.shiro.session.Session;
+import org.apache.shiro.session.UnknownSessionException;
+import org.apache.shiro.session.mgt.SessionKey;
+import org.apache.shiro.web.session.mgt.DefaultWebSessionManager;
+import org.apache.shiro.web.util.WebUtils;
+
+import javax.servlet.ServletRequest;
+import java.io.Serializable;
+
+/**
+ * Redis Session管理，同一个请求内只从Redis读取一次Session
+ *
+ */
+public class RedisWebSessionManager extends DefaultWebSessionManager {
+	private final static String SESSION_ATTRIBUTE_PREFIX = RedisWebSessionManager.class.getName() + ".";
+
+	public RedisWebSessionManager() {
+		super();
+		setSessionFactory(context -> {
+			String host = context == null ? null : context.getHost();
+			return host == null ? new RedisSession() : new RedisSession(host);
+		});
+	}
+
+	@Override
+	protected Session retrieveSession(SessionKey sessionKey) throws UnknownSessionException {
+		ServletRequest request = WebUtils.isWeb(sessionKey) ? WebUtils.getRequest(sessionKey) : null;
+		if(request == null){
+			return super.retrieveSession(sessionKey);
+		}
+
+		Serializable sessionId = getSessionId(sessionKey);
+		if(sessionId == null){
+			return null;
+		}
+
+		String name = SESSION_ATTRIBUTE_PREFIX + sessionId;
+		Session session = (Session) request.getAttribute(name);
+		if(session == null){
+			session = super.retrieveSession(sessionKey);
+			if(session != null){
+				request.setAttribute(name, session);
+			}
+		}
+		return session;
+	}
+
+	@Override
+	protected void onStop(Session session, SessionKey key) {
+		super.onStop(session, key);
+		ServletRequest request = WebUtils.isWeb(key) ? WebUtils.getRequest(key) : null;
+		if(request != null){
+			request.removeAttribute(SESSION_ATTRIBUTE_PREFIX + session.getId());
+		}
+	}
+}
@@ -7,6 +7,7 @@ $(function () {
 			{ label: 'bean名称', name: 'beanName', width: 100 },
 			{ label: '参数', name: 'params', width: 100 },
 			{ label: 'cron表达式 ', name: 'cronExpression', width: 100 },
+			{ label: '分片总数 ', name: 'shardTotal', width: 60 },
 			{ label: '备注 ', name: 'remark', width: 100 },
 			{ label: '状态', name: 'status', width: 60, formatter: function(value, options, row){
 				return value === 0 ? 
@@ -58,7 +59,7 @@ var vm = new Vue({
 		add: function(){
 			vm.showList = false;
 			vm.title = "新增";
-			vm.schedule = {};
+			vm.schedule = {shardTotal: 1};
 		},
 		update: function () {
 			var jobId = getSelectedRow();
@@ -195,4 +196,4 @@ var vm = new Vue({
             }).trigger("reloadGrid");
 		}
 	}
-});
\ No newline at end of file
+});
\ No newline at end of file
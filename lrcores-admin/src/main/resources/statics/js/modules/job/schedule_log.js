@@ -7,6 +7,10 @@ $(function () {
 			{ label: '任务ID', name: 'jobId', width: 50},
 			{ label: 'bean名称', name: 'beanName', width: 60 },
 			{ label: '参数', name: 'params', width: 60 },
+			{ label: '分片', name: 'shardIndex', width: 50, formatter: function(value, options, row){
+				return row.shardTotal > 1 ?
+					'<span class="pointer" onclick="vm.showShard(\''+row.fireId+'\')">' + (value + 1) + '/' + row.shardTotal + '</span>' : '-';
+			}},
 			{ label: '状态', name: 'status', width: 50, formatter: function(value, options, row){
 				return value === 0 ? 
 					'<span class="label label-success">成功</span>' :
@@ -65,6 +69,17 @@ var vm = new Vue({
 				});
 			});
 		},
+		showShard: function(fireId) {
+			$.get(baseURL + "sys/scheduleLog/shard/"+fireId, function(r){
+				var s = r.summary;
+				parent.layer.open({
+				  title:'分片执行汇总',
+				  closeBtn:0,
+				  content: '分片总数：' + s.shardTotal + '，已执行：' + s.shardCount + '，成功：' + s.successCount +
+					'，失败：' + s.failCount + '<br/>最长耗时：' + s.maxTimes + '毫秒，累计耗时：' + s.totalTimes + '毫秒'
+				});
+			});
+		},
 		back: function (event) {
 			history.go(-1);
 		}
@@ -0,0 +1,59 @@
+package io.lrcores;
+
+import io.lrcores.common.utils.DateUtils;
+import org.joda.time.format.DateTimeFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+
+/**
+ * 日期格式化测试，对比原方式(每次新建SimpleDateFormat/Joda格式化器)的结果，速度见 src/jmh/java 中的 DateUtilsBenchmark
+ *
+ */
+public class DateUtilsTest {
+    @Test
+    public void compatible() throws Exception {
+        Random random = new Random(1);
+        for(int i = 0; i < 100000; i++){
+            Date date = new Date((long) (random.nextDouble() * 100 * 365 * 24 * 3600 * 1000L));
+            for(String pattern : new String[]{DateUtils.DATE_PATTERN, DateUtils.DATE_TIME_PATTERN, "yyyyMMdd"}){
+                String value = new SimpleDateFormat(pattern).format(date);
+                Assert.assertEquals(value, DateUtils.format(date, pattern));
+                Assert.assertEquals(DateTimeFormat.forPattern(pattern).parseLocalDateTime(value).toDate(),
+                        DateUtils.stringToDate(value, pattern));
+            }
+        }
+
+        Assert.assertNull(DateUtils.format(null));
+        Assert.assertNull(DateUtils.stringToDate(" ", DateUtils.DATE_PATTERN));
+    }
+
+    /**
+     * 与Joda一致：数字可以不补0，没有年份时按1970年
+     */
+    @Test
+    public void unpadded() {
+        String[][] cases = {
+                {"2021-2-3", DateUtils.DATE_PATTERN},
+                {"2021-12-3", DateUtils.DATE_PATTERN},
+                {"2021-2-3 4:5:6", DateUtils.DATE_TIME_PATTERN},
+                {"2021-02-03 4:05:6", DateUtils.DATE_TIME_PATTERN},
+                {"08:30", "HH:mm"},
+                {"8:3", "HH:mm"},
+                {"2021/2/3", "yyyy/MM/dd"},
+                {"20210203", "yyyyMMdd"}
+        };
+        for(String[] c : cases){
+            Assert.assertEquals(c[0], DateTimeFormat.forPattern(c[1]).parseLocalDateTime(c[0]).toDate(),
+                    DateUtils.stringToDate(c[0], c[1]));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidDate() {
+        DateUtils.stringToDate("2021-02-29", DateUtils.DATE_PATTERN);
+    }
+}
@@ -0,0 +1,50 @@
+package io.lrcores;
+
+import io.lrcores.common.utils.IdCardUtils;
+import io.lrcores.common.utils.PhoneUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.regex.Pattern;
+
+/**
+ * 身份证、手机号码校验测试，对比原正则方式的结果，速度见 src/jmh/java 中的 IdCardPhoneUtilsBenchmark
+ *
+ */
+public class IdCardPhoneUtilsTest {
+    /**  原手机号码正则  */
+    private final static Pattern PHONE_PATTERN = Pattern.compile(
+            "^(13[0-9]\\d{8})|(14[56789]\\d{8})|(14[14]0\\d{7})|(15[012356789]\\d{8})" +
+                    "|(16[6]\\d{8})|(170[012356789]\\d{7})|(17[135678]\\d{8})" +
+                    "|(1740[0-5]\\d{6})|(18[0-9]\\d{8})|(19[89]\\d{8})$");
+
+    @Test
+    public void phone() {
+        for(int prefix = 0; prefix < 100000; prefix++){
+            for(String suffix : new String[]{"000000", "999999"}){
+                String phone = String.format("%05d", prefix) + suffix;
+                Assert.assertEquals(phone, PHONE_PATTERN.matcher(phone).matches(), PhoneUtils.isValid(phone));
+            }
+        }
+        Assert.assertFalse(PhoneUtils.isValid(null));
+        Assert.assertFalse(PhoneUtils.isValid("1380013800a"));
+    }
+
+    @Test
+    public void idCard() {
+        for(String idCard : new String[]{"", "11010519491231002X", "11010519491231002x", "440304199001011233",
+                "320106200002297712", "110105491231002", "110105490101002"}){
+            Assert.assertTrue(idCard, IdCardUtils.isValid(idCard));
+        }
+        //校验码错误、日期无效、省份无效、出生日期大于当前日期、长度错误
+        for(String idCard : new String[]{"110105194912310021", "440304199001321233", "320106190002297719",
+                "990304199001011233", "110105210001011231", "11010549123100"}){
+            Assert.assertFalse(idCard, IdCardUtils.isValid(idCard));
+        }
+
+        BitSet failures = IdCardUtils.validateAll(Arrays.asList("110105491231002", "x", "", "44030419900101123X"));
+        Assert.assertEquals(BitSet.valueOf(new long[]{0b1010}), failures);
+    }
+}
@@ -0,0 +1,51 @@
+package io.lrcores;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lrcores.common.utils.PageUtils;
+import io.lrcores.common.utils.R;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 返回数据测试，对比原HashMap方式的输出，速度见 src/jmh/java 中的 RBenchmark
+ *
+ */
+public class RTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Map<String, Object> map(Object... keyValues) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("code", 0);
+        map.put("msg", "success");
+        for(int i = 0; i < keyValues.length; i += 2){
+            map.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+
+    private void assertJson(Map<String, Object> expected, R r) throws Exception {
+        String json = objectMapper.writeValueAsString(r);
+        Assert.assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(expected)), objectMapper.readTree(json));
+    }
+
+    @Test
+    public void compatible() throws Exception {
+        PageUtils page = new PageUtils(Arrays.asList("a", "b"), 2, 10, 1);
+
+        assertJson(map(), R.ok());
+        assertJson(map("msg", "保存成功"), R.ok("保存成功"));
+        assertJson(map("code", 500, "msg", "未知异常，请联系管理员"), R.error());
+        assertJson(map("page", page, "user", null), R.ok().put("page", page).put("user", null));
+        assertJson(map("token", "abc", "expire", 3600), R.ok(map("token", "abc", "expire", 3600)));
+        assertJson(map("code", 401, "msg", "invalid token"), new R().put("code", 401).put("msg", "invalid token"));
+        assertJson(map("data", 1), R.ok().put("data", 1));
+
+        R r = R.ok().put("page", page).put("page", null);
+        Assert.assertNull(r.get("page"));
+        Assert.assertEquals(0, r.get("code"));
+    }
+}
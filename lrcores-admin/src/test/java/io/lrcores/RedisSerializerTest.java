@@ -0,0 +1,59 @@
+package io.lrcores;
+
+import com.alibaba.fastjson.JSON;
+import io.lrcores.common.serializer.JsonRedisCodec;
+import io.lrcores.common.serializer.KryoRedisCodec;
+import io.lrcores.common.serializer.RedisCodec;
+import io.lrcores.common.serializer.RedisSerializerProperties;
+import io.lrcores.common.serializer.RedisSerializers;
+import io.lrcores.common.utils.RedisKeys;
+import io.lrcores.modules.sys.entity.SysConfigEntity;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.Arrays;
+
+/**
+ * Redis编码测试，编解码速度见 src/jmh/java 中的 RedisSerializerBenchmark
+ *
+ */
+public class RedisSerializerTest {
+    private RedisSerializers serializers(String codec, int compressThreshold) {
+        RedisSerializerProperties properties = new RedisSerializerProperties();
+        properties.setCodec(codec);
+        properties.setCompressThreshold(compressThreshold);
+        return new RedisSerializers(Arrays.<RedisCodec>asList(new JsonRedisCodec(), new KryoRedisCodec()), properties);
+    }
+
+    private SysConfigEntity config(String value) {
+        SysConfigEntity config = new SysConfigEntity();
+        config.setId(1L);
+        config.setParamKey("CLOUD_STORAGE_CONFIG_KEY");
+        config.setParamValue(value);
+        config.setRemark("云存储配置信息");
+        return config;
+    }
+
+    @Test
+    public void roundTrip() {
+        String key = RedisKeys.getSysConfigKey("test");
+        StringBuilder value = new StringBuilder();
+        for(int i = 0; i < 1000; i++){
+            value.append("{\"type\":1,\"qiniuDomain\":\"http://7xqbwh.dl1.z0.glb.clouddn.com\"}");
+        }
+
+        for(String codec : new String[]{JsonRedisCodec.NAME, KryoRedisCodec.NAME}){
+            RedisSerializers serializers = serializers(codec, 4096);
+            for(SysConfigEntity config : new SysConfigEntity[]{config("{\"type\":1}"), config(value.toString())}){
+                SysConfigEntity result = serializers.deserialize(serializers.serialize(key, config), SysConfigEntity.class);
+                Assert.assertEquals(config, result);
+            }
+            Assert.assertEquals("abc", serializers.deserialize(serializers.serialize(key, "abc"), String.class));
+        }
+
+        //无法识别的数据当作未命中
+        byte[] jdk = new JdkSerializationRedisSerializer().serialize(JSON.toJSONString(config("1")));
+        Assert.assertNull(serializers(KryoRedisCodec.NAME, 4096).deserialize(jdk, SysConfigEntity.class));
+    }
+}
@@ -0,0 +1,169 @@
+package io.lrcores;
+
+import io.lrcores.common.utils.Constant;
+import io.lrcores.common.utils.SpringContextUtils;
+import io.lrcores.modules.job.entity.ScheduleJobEntity;
+import io.lrcores.modules.job.entity.ScheduleJobLogEntity;
+import io.lrcores.modules.job.service.ScheduleJobLogService;
+import io.lrcores.modules.job.task.ITask;
+import io.lrcores.modules.job.utils.ScheduleUtils;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.h2.tools.RunScript;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.quartz.Scheduler;
+import org.quartz.impl.SchedulerRepository;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.utils.ConnectionProvider;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.io.InputStreamReader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 定时任务分片测试，两个集群节点共用H2数据库，每个分片只执行一次
+ *
+ */
+public class ScheduleShardTest {
+    private final static String URL = "jdbc:h2:mem:quartz;DB_CLOSE_DELAY=-1";
+    private final static int SHARD_TOTAL = 8;
+
+    private final Map<Integer, AtomicInteger> shards = new ConcurrentHashMap<>();
+    private final List<ScheduleJobLogEntity> logs = new CopyOnWriteArrayList<>();
+    private final List<Scheduler> schedulers = new ArrayList<>();
+
+    @Before
+    public void init() throws Exception {
+        try (Connection connection = H2ConnectionProvider.POOL.getConnection();
+             InputStreamReader reader = new InputStreamReader(getClass().getClassLoader()
+                     .getResourceAsStream("org/quartz/impl/jdbcjobstore/tables_h2.sql"), StandardCharsets.UTF_8)) {
+            RunScript.execute(connection, reader);
+        }
+
+        //ScheduleJob通过SpringContextUtils获取任务及日志服务
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.getBeanFactory().registerSingleton("shardTask", (ITask) new ITask() {
+            @Override
+            public void run(String params) {
+                throw new IllegalStateException("分片任务应执行分片方法");
+            }
+
+            @Override
+            public void run(String params, int shardIndex, int shardTotal) {
+                shards.computeIfAbsent(shardIndex, k -> new AtomicInteger()).incrementAndGet();
+            }
+        });
+        context.getBeanFactory().registerSingleton("scheduleJobLogService", Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ScheduleJobLogService.class}, (proxy, method, args) -> {
+                    if("save".equals(method.getName())){
+                        return logs.add((ScheduleJobLogEntity) args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+        context.refresh();
+        new SpringContextUtils().setApplicationContext(context);
+
+        schedulers.add(createScheduler("node1"));
+        schedulers.add(createScheduler("node2"));
+    }
+
+    @After
+    public void destroy() throws Exception {
+        for(Scheduler scheduler : schedulers){
+            scheduler.shutdown(true);
+        }
+        try (Connection connection = H2ConnectionProvider.POOL.getConnection()) {
+            connection.createStatement().execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    public void shard() throws Exception {
+        ScheduleJobEntity scheduleJob = new ScheduleJobEntity();
+        scheduleJob.setJobId(1L);
+        scheduleJob.setBeanName("shardTask");
+        scheduleJob.setParams("test");
+        scheduleJob.setCronExpression("0 0 0 1 1 ? 2099");
+        scheduleJob.setShardTotal(SHARD_TOTAL);
+        scheduleJob.setStatus(Constant.ScheduleStatus.NORMAL.getValue());
+
+        ScheduleUtils.createScheduleJob(schedulers.get(0), scheduleJob);
+        ScheduleUtils.run(schedulers.get(0), scheduleJob);
+
+        long deadline = System.currentTimeMillis() + 30000;
+        while(logs.size() < SHARD_TOTAL && System.currentTimeMillis() < deadline){
+            Thread.sleep(100);
+        }
+        //等待可能重复执行的分片
+        Thread.sleep(2000);
+
+        Assert.assertEquals(SHARD_TOTAL, logs.size());
+        Assert.assertEquals(SHARD_TOTAL, shards.size());
+        for(int shardIndex = 0; shardIndex < SHARD_TOTAL; shardIndex++){
+            Assert.assertEquals("分片" + shardIndex, 1, shards.get(shardIndex).get());
+        }
+
+        Set<String> fireIds = new HashSet<>();
+        for(ScheduleJobLogEntity log : logs){
+            Assert.assertEquals(Integer.valueOf(0), log.getStatus());
+            Assert.assertEquals(Integer.valueOf(SHARD_TOTAL), log.getShardTotal());
+            fireIds.add(log.getFireId());
+        }
+        Assert.assertEquals(1, fireIds.size());
+    }
+
+    private Scheduler createScheduler(String instanceId) throws Exception {
+        Properties prop = new Properties();
+        prop.put("org.quartz.scheduler.instanceName", "lrcoresScheduler");
+        prop.put("org.quartz.scheduler.instanceId", instanceId);
+        prop.put("org.quartz.scheduler.idleWaitTime", "1000");
+        prop.put("org.quartz.scheduler.skipUpdateCheck", "true");
+        prop.put("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
+        prop.put("org.quartz.threadPool.threadCount", "4");
+        prop.put("org.quartz.jobStore.class", "org.quartz.impl.jdbcjobstore.JobStoreTX");
+        prop.put("org.quartz.jobStore.driverDelegateClass", "org.quartz.impl.jdbcjobstore.StdJDBCDelegate");
+        prop.put("org.quartz.jobStore.dataSource", "quartz");
+        prop.put("org.quartz.jobStore.tablePrefix", "QRTZ_");
+        prop.put("org.quartz.jobStore.isClustered", "true");
+        prop.put("org.quartz.jobStore.clusterCheckinInterval", "1000");
+        prop.put("org.quartz.dataSource.quartz.connectionProvider.class", H2ConnectionProvider.class.getName());
+
+        Scheduler scheduler = new StdSchedulerFactory(prop).getScheduler();
+        //同名的调度器在同一个JVM中只能注册一个，与SchedulerFactoryBean一样从仓库中移除
+        SchedulerRepository.getInstance().remove(scheduler.getSchedulerName());
+        scheduler.start();
+        return scheduler;
+    }
+
+    public static class H2ConnectionProvider implements ConnectionProvider {
+        private final static JdbcConnectionPool POOL = JdbcConnectionPool.create(URL, "sa", "");
+
+        static {
+            POOL.setMaxConnections(20);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return POOL.getConnection();
+        }
+
+        @Override
+        public void shutdown() {
+
+        }
+
+        @Override
+        public void initialize() {
+
+        }
+    }
+}
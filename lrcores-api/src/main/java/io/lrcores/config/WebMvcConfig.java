@@ -1,6 +1,7 @@
 package io.lrcores.config;
 
 
+import io.lrcores.common.metrics.MetricsInterceptor;
 import io.lrcores.interceptor.AuthorizationInterceptor;
 import io.lrcores.resolver.LoginUserHandlerMethodArgumentResolver;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,9 +22,12 @@ public class WebMvcConfig implements WebMvcConfigurer {
     private AuthorizationInterceptor authorizationInterceptor;
     @Autowired
     private LoginUserHandlerMethodArgumentResolver loginUserHandlerMethodArgumentResolver;
+    @Autowired
+    private MetricsInterceptor metricsInterceptor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(metricsInterceptor);
         registry.addInterceptor(authorizationInterceptor).addPathPatterns("/api/**");
     }
 
@@ -0,0 +1,28 @@
+package io.lrcores.common.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 方法执行后删除缓存，有事务时提交后再删除一次
+ *
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheEvict {
+
+	/**
+	 * 缓存名称
+	 */
+	String[] value();
+
+	/**
+	 * key，SpEL表达式，为空时使用所有参数
+	 */
+	String key() default "";
+
+	/**
+	 * 是否删除缓存名称下的所有key
+	 */
+	boolean allEntries() default false;
+}
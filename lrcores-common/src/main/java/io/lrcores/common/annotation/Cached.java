@@ -0,0 +1,52 @@
+package io.lrcores.common.annotation;
+
+import io.lrcores.common.utils.RedisUtils;
+
+import java.lang.annotation.*;
+
+/**
+ * 缓存方法返回值，先查缓存，未命中时执行方法并写入Redis
+ *
+ * 同一个key并发未命中时只执行一次方法；快过期时按概率提前刷新
+ *
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Cached {
+
+	/**
+	 * 缓存名称
+	 */
+	String value();
+
+	/**
+	 * key，SpEL表达式，如：#userId、#p0，为空时使用所有参数
+	 */
+	String key() default "";
+
+	/**
+	 * 过期时长，单位：秒
+	 */
+	long expire() default RedisUtils.DEFAULT_EXPIRE;
+
+	/**
+	 * 过期时长随机增加的比例，避免同时过期
+	 */
+	double jitter() default 0.1;
+
+	/**
+	 * 提前刷新系数，越大越早刷新，0不提前刷新
+	 */
+	double beta() default 1.0;
+
+	/**
+	 * 是否使用本地缓存，返回值会被多个请求共享，不能修改
+	 */
+	boolean local() default false;
+
+	/**
+	 * 本地缓存过期时长，单位：秒，其他节点修改后最长延迟该时长生效
+	 */
+	long localExpire() default 60;
+}
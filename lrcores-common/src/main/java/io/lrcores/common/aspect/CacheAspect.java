@@ -0,0 +1,276 @@
+package io.lrcores.common.aspect;
+
+import io.lrcores.common.annotation.CacheEvict;
+import io.lrcores.common.annotation.Cached;
+import io.lrcores.common.serializer.KryoRedisCodec;
+import io.lrcores.common.serializer.RedisSerializers;
+import io.lrcores.common.utils.RedisUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.commons.lang.StringUtils;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 缓存切面处理类
+ *
+ */
+@Aspect
+@Component
+public class CacheAspect {
+    private Logger logger = LoggerFactory.getLogger(getClass());
+    /**  缓存key前缀  */
+    public final static String KEY_PREFIX = "cache:";
+
+    @Autowired
+    private RedisUtils redisUtils;
+    @Autowired
+    private RedisSerializers redisSerializers;
+    @Autowired
+    private KryoRedisCodec kryoRedisCodec;
+    /**
+     * 本地缓存数量
+     */
+    @Value("${lrcores.cache.local-size:10000}")
+    private int localSize;
+
+    private LocalCache localCache;
+    /**  正在加载的key，同一个key只加载一次  */
+    private final Map<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer nameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+    /**  按缓存名称、命中结果缓存的计数器  */
+    private final Map<List<String>, Counter> counters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        localCache = new LocalCache(localSize);
+        //返回值多为泛型集合，JSON无法还原元素类型，固定使用kryo编码
+        redisSerializers.registerPrefix(KEY_PREFIX, KryoRedisCodec.NAME);
+    }
+
+    @Around("@annotation(cached)")
+    public Object cached(ProceedingJoinPoint point, Cached cached) throws Throwable {
+        String key = KEY_PREFIX + cached.value() + ":" + getKey(point, cached.key());
+
+        if(cached.local()){
+            //本地缓存的对象所有请求共用，返回副本，避免调用方修改
+            Object value = copy(key, localCache.get(key));
+            if(value != null){
+                count(cached, "local");
+                return value;
+            }
+        }
+
+        CacheValue cacheValue = redisUtils.get(key, CacheValue.class);
+        if(cacheValue == null){
+            count(cached, "miss");
+            return load(point, cached, key, true);
+        }
+
+        //快过期时提前刷新，已有请求在刷新时返回旧值
+        if(shouldRefresh(cacheValue, cached.beta()) && !loading.containsKey(key)){
+            count(cached, "refresh");
+            return load(point, cached, key, false);
+        }
+
+        count(cached, "hit");
+        if(cached.local()){
+            putLocal(cached, key, cacheValue.value);
+        }
+        return cacheValue.value;
+    }
+
+    @Around("@annotation(cacheEvict)")
+    public Object evict(ProceedingJoinPoint point, CacheEvict cacheEvict) throws Throwable {
+        Object result = point.proceed();
+
+        String key = cacheEvict.allEntries() ? null : getKey(point, cacheEvict.key());
+        evict(cacheEvict.value(), key);
+
+        //事务提交前其他请求可能读到旧数据并写入缓存，提交后再删除一次
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    evict(cacheEvict.value(), key);
+                }
+            });
+        }
+
+        return result;
+    }
+
+    /**
+     * 按缓存名称统计命中次数
+     */
+    private void count(Cached cached, String result) {
+        List<String> tags = Arrays.asList(cached.value(), result);
+        Counter counter = counters.get(tags);
+        if(counter == null){
+            counter = counters.computeIfAbsent(tags, k -> Metrics.counter("cache.gets", "name", k.get(0), "result", k.get(1)));
+        }
+        counter.increment();
+    }
+
+    /**
+     * 执行方法并写入缓存
+     * @param wait  已有请求在加载时，是否等待其加载完成
+     */
+    private Object load(ProceedingJoinPoint point, Cached cached, String key, boolean wait) throws Throwable {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loading.putIfAbsent(key, future);
+        if(existing != null){
+            if(!wait){
+                CacheValue cacheValue = redisUtils.get(key, CacheValue.class);
+                if(cacheValue != null){
+                    return cacheValue.value;
+                }
+            }
+            Object value = await(existing, key);
+            //加载结果为null或无法复制时，自己执行方法
+            return value != null ? value : point.proceed();
+        }
+
+        try{
+            long start = System.currentTimeMillis();
+            Object value = point.proceed();
+            long delta = System.currentTimeMillis() - start;
+
+            if(value != null){
+                put(cached, key, value, delta);
+            }
+            future.complete(value);
+            return value;
+        }catch (Throwable e){
+            future.completeExceptionally(e);
+            throw e;
+        }finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * 等待其他请求加载完成，返回加载结果的副本，避免多个请求共享同一个对象
+     */
+    private Object await(CompletableFuture<Object> future, String key) throws Throwable {
+        Object value;
+        try{
+            value = future.get();
+        }catch (ExecutionException e){
+            throw e.getCause();
+        }
+        return copy(key, value);
+    }
+
+    /**
+     * 复制对象，失败时返回null
+     */
+    private Object copy(String key, Object value) {
+        if(value == null){
+            return null;
+        }
+        try{
+            return kryoRedisCodec.copy(value);
+        }catch (RuntimeException e){
+            logger.warn("cache copy error, key: " + key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 写入本地缓存的是副本，与返回给调用方的对象分开
+     */
+    private void putLocal(Cached cached, String key, Object value) {
+        Object copy = copy(key, value);
+        if(copy != null){
+            localCache.put(key, copy, cached.localExpire());
+        }
+    }
+
+    private void put(Cached cached, String key, Object value, long delta) {
+        //过期时长增加随机值，避免同时过期
+        long expire = cached.expire();
+        if(cached.jitter() > 0){
+            expire += (long) (expire * cached.jitter() * ThreadLocalRandom.current().nextDouble());
+        }
+
+        try{
+            CacheValue cacheValue = new CacheValue(value, System.currentTimeMillis() + cached.expire() * 1000, delta);
+            redisUtils.set(key, cacheValue, expire);
+        }catch (Exception e){
+            logger.error("cache put error, key: " + key, e);
+        }
+
+        if(cached.local()){
+            putLocal(cached, key, value);
+        }
+    }
+
+    /**
+     * 提前刷新：now - delta * beta * ln(random) >= expireAt，越接近过期、方法越慢，刷新概率越大
+     */
+    private boolean shouldRefresh(CacheValue cacheValue, double beta) {
+        if(beta <= 0){
+            return false;
+        }
+        double random = ThreadLocalRandom.current().nextDouble();
+        return System.currentTimeMillis() - cacheValue.delta * beta * Math.log(random) >= cacheValue.expireAt;
+    }
+
+    private void evict(String[] names, String key) {
+        for(String name : names){
+            String prefix = KEY_PREFIX + name + ":";
+            try{
+                if(key == null){
+                    localCache.removeByPrefix(prefix);
+                    redisUtils.deleteByPrefix(prefix);
+                }else{
+                    localCache.remove(prefix + key);
+                    redisUtils.delete(prefix + key);
+                }
+            }catch (Exception e){
+                logger.error("cache evict error, name: " + name, e);
+            }
+        }
+    }
+
+    /**
+     * 根据SpEL表达式获取key，表达式为空时使用所有参数
+     */
+    private String getKey(ProceedingJoinPoint point, String keyExpression) {
+        Object[] args = point.getArgs();
+        if(StringUtils.isBlank(keyExpression)){
+            return args.length == 0 ? "_" : StringUtils.join(args, ",");
+        }
+
+        MethodSignature signature = (MethodSignature) point.getSignature();
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(null, signature.getMethod(), args, nameDiscoverer);
+        Expression expression = expressions.computeIfAbsent(keyExpression, parser::parseExpression);
+        return String.valueOf(expression.getValue(context));
+    }
+}
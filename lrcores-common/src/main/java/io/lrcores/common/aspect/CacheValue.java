@@ -0,0 +1,23 @@
+package io.lrcores.common.aspect;
+
+/**
+ * 缓存值
+ *
+ */
+class CacheValue {
+    /**  方法返回值  */
+    Object value;
+    /**  过期时间，单位：毫秒  */
+    long expireAt;
+    /**  方法执行时长，单位：毫秒，执行越慢越早刷新  */
+    long delta;
+
+    public CacheValue() {
+    }
+
+    CacheValue(Object value, long expireAt, long delta) {
+        this.value = value;
+        this.expireAt = expireAt;
+        this.delta = delta;
+    }
+}
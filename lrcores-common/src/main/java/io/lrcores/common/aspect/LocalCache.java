@@ -0,0 +1,63 @@
+package io.lrcores.common.aspect;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 本地缓存，超过数量时淘汰最久未使用的
+ *
+ */
+class LocalCache {
+    private final int maxSize;
+    private final Map<String, Entry> cache;
+
+    LocalCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > LocalCache.this.maxSize;
+            }
+        };
+    }
+
+    synchronized Object get(String key) {
+        Entry entry = cache.get(key);
+        if(entry == null){
+            return null;
+        }
+        if(entry.expireAt < System.currentTimeMillis()){
+            cache.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    synchronized void put(String key, Object value, long expire) {
+        cache.put(key, new Entry(value, System.currentTimeMillis() + expire * 1000));
+    }
+
+    synchronized void remove(String key) {
+        cache.remove(key);
+    }
+
+    synchronized void removeByPrefix(String prefix) {
+        Iterator<String> iterator = cache.keySet().iterator();
+        while(iterator.hasNext()){
+            if(iterator.next().startsWith(prefix)){
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class Entry {
+        final Object value;
+        final long expireAt;
+
+        Entry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
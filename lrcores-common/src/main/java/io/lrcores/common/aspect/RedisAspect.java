@@ -1,17 +1,35 @@
 package io.lrcores.common.aspect;
 
 import io.lrcores.common.exception.RRException;
+import io.lrcores.common.serializer.RedisSerializers;
+import io.lrcores.common.utils.CircuitBreaker;
+import io.lrcores.common.utils.RedisBatch;
+import io.lrcores.common.utils.RedisUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Redis切面处理类
  *
+ * Redis异常时熔断，熔断期间不再访问Redis，读取本地缓存的旧值
+ *
  */
 @Aspect
 @Component
@@ -22,18 +40,270 @@ public class RedisAspect {
      */
     @Value("${lrcores.redis.open: false}")
     private boolean open;
+    /**
+     * 连续失败次数，达到后熔断
+     */
+    @Value("${lrcores.redis.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+    /**
+     * 熔断时长(毫秒)，之后放行一个请求探测
+     */
+    @Value("${lrcores.redis.circuit-breaker.open-time:10000}")
+    private long openTime;
+    /**
+     * 本地缓存数量
+     */
+    @Value("${lrcores.redis.circuit-breaker.fallback-size:10000}")
+    private int fallbackSize;
+    @Autowired
+    private RedisSerializers serializers;
+
+    private CircuitBreaker circuitBreaker;
+    private RedisFallbackCache fallbackCache;
+    /**  按方法、结果缓存的Timer  */
+    private final Map<List<String>, Timer> timers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        circuitBreaker = new CircuitBreaker("redis", failureThreshold, openTime);
+        fallbackCache = new RedisFallbackCache(fallbackSize);
+
+        //熔断状态：0正常  1熔断  2探测中
+        Gauge.builder("redis.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .register(Metrics.globalRegistry);
+        FunctionCounter.builder("redis.circuit.transitions", circuitBreaker, CircuitBreaker::getOpenCount)
+                .tag("state", "open").register(Metrics.globalRegistry);
+        FunctionCounter.builder("redis.circuit.transitions", circuitBreaker, CircuitBreaker::getHalfOpenCount)
+                .tag("state", "half_open").register(Metrics.globalRegistry);
+        FunctionCounter.builder("redis.circuit.transitions", circuitBreaker, CircuitBreaker::getCloseCount)
+                .tag("state", "closed").register(Metrics.globalRegistry);
+        FunctionCounter.builder("redis.circuit.rejected", circuitBreaker, CircuitBreaker::getRejectCount)
+                .register(Metrics.globalRegistry);
+    }
 
     @Around("execution(* io.lrcores.common.utils.RedisUtils.*(..))")
     public Object around(ProceedingJoinPoint point) throws Throwable {
-        Object result = null;
+        String method = point.getSignature().getName();
+        Object[] args = point.getArgs();
+        Object result = closed(method, args);
         if(open){
+
+            if(!circuitBreaker.allowRequest()){
+                record(method, "rejected", 0);
+                return fallback(method, args);
+            }
+
+            long start = System.nanoTime();
             try{
                 result = point.proceed();
-            }catch (Exception e){
+            }catch (Throwable e){
+                record(method, "error", System.nanoTime() - start);
+                if(!isUnavailable(e)){
+                    //Redis可以访问，如序列化、参数等错误，不计入熔断
+                    circuitBreaker.onSuccess();
+                    throw e;
+                }
                 logger.error("redis error", e);
-                throw new RRException("Redis服务异常");
+                circuitBreaker.onFailure();
+                return fallback(method, args);
+            }
+            record(method, "success", System.nanoTime() - start);
+            circuitBreaker.onSuccess();
+            remember(method, args, result);
+
+            //恢复后删除降级期间修改过的key
+            if(fallbackCache.hasDirty()){
+                evictDirty((RedisUtils) point.getThis());
             }
         }
         return result;
     }
+
+    /**
+     * 未开启redis缓存时的返回值，批量读取返回与请求数量相同的null，当作未命中
+     */
+    private Object closed(String method, Object[] args) {
+        switch (method) {
+            case "multiGet":
+                return new ArrayList<>(Collections.nCopies(keys(args[0]).size(), null));
+            case "execute":
+                return new ArrayList<>(Collections.nCopies(((RedisBatch) args[0]).size(), null));
+            case "deleteByPrefix":
+                return 0L;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 是否Redis不可用，如连接失败、超时
+     */
+    private boolean isUnavailable(Throwable e) {
+        for(Throwable t = e; t != null; t = t.getCause()){
+            if(t instanceof DataAccessResourceFailureException || t instanceof TransientDataAccessException){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 记录RedisUtils各方法耗时
+     */
+    private void record(String method, String outcome, long time) {
+        List<String> tags = Arrays.asList(method, outcome);
+        Timer timer = timers.get(tags);
+        if(timer == null){
+            timer = timers.computeIfAbsent(tags, k -> Timer.builder("redis.commands")
+                    .tag("method", k.get(0))
+                    .tag("outcome", k.get(1))
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry));
+        }
+        timer.record(time, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 访问成功，更新本地缓存
+     */
+    private void remember(String method, Object[] args, Object result) {
+        switch (method) {
+            case "get":
+                fallbackCache.put((String) args[0], encode((String) args[0], result));
+                break;
+            case "multiGet":
+                Iterator<?> values = ((List<?>) result).iterator();
+                for(String key : keys(args[0])){
+                    fallbackCache.put(key, encode(key, values.next()));
+                }
+                break;
+            case "set":
+                fallbackCache.put((String) args[0], encode((String) args[0], args[1]));
+                break;
+            case "multiSet":
+                ((Map<?, ?>) args[0]).forEach((key, value) -> fallbackCache.put((String) key, encode((String) key, value)));
+                break;
+            case "delete":
+                for(String key : keys(args[0])){
+                    fallbackCache.remove(key);
+                }
+                break;
+            case "execute":
+                List<RedisBatch.Operation> operations = ((RedisBatch) args[0]).getOperations();
+                List<?> results = (List<?>) result;
+                for(int i = 0; i < operations.size(); i++){
+                    RedisBatch.Operation operation = operations.get(i);
+                    if(operation.getType() == RedisBatch.Type.GET){
+                        fallbackCache.put(operation.getKey(), encode(operation.getKey(), results.get(i)));
+                    }else if(operation.getType() == RedisBatch.Type.SET){
+                        fallbackCache.put(operation.getKey(), encode(operation.getKey(), operation.getValue()));
+                    }else if(operation.getType() == RedisBatch.Type.DELETE){
+                        fallbackCache.remove(operation.getKey());
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Redis不可用，读取本地缓存，修改记录到本地
+     */
+    private Object fallback(String method, Object[] args) {
+        switch (method) {
+            case "get":
+                Class<?> clazz = args.length > 1 && args[1] instanceof Class ? (Class<?>) args[1] : String.class;
+                return decode((String) args[0], clazz);
+            case "multiGet":
+                List<Object> values = new ArrayList<>();
+                Class<?> type = args.length > 1 && args[1] instanceof Class ? (Class<?>) args[1] : String.class;
+                for(String key : keys(args[0])){
+                    values.add(decode(key, type));
+                }
+                return values;
+            case "set":
+                fallbackCache.putDirty((String) args[0], encode((String) args[0], args[1]));
+                return null;
+            case "multiSet":
+                ((Map<?, ?>) args[0]).forEach((key, v) -> fallbackCache.putDirty((String) key, encode((String) key, v)));
+                return null;
+            case "delete":
+                for(String key : keys(args[0])){
+                    fallbackCache.putDirty(key, null);
+                }
+                return null;
+            case "execute":
+                List<Object> results = new ArrayList<>();
+                for(RedisBatch.Operation operation : ((RedisBatch) args[0]).getOperations()){
+                    Object result = null;
+                    if(operation.getType() == RedisBatch.Type.GET){
+                        result = decode(operation.getKey(), operation.getClazz());
+                    }else if(operation.getType() == RedisBatch.Type.SET){
+                        fallbackCache.putDirty(operation.getKey(), encode(operation.getKey(), operation.getValue()));
+                    }else if(operation.getType() == RedisBatch.Type.DELETE){
+                        fallbackCache.putDirty(operation.getKey(), null);
+                    }
+                    results.add(result);
+                }
+                return results;
+            default:
+                throw new RRException("Redis服务异常");
+        }
+    }
+
+    /**
+     * 按key的编码保存副本，不保存调用方持有的对象，编码失败的不缓存
+     */
+    private byte[] encode(String key, Object value) {
+        if(value == null){
+            return null;
+        }
+        try{
+            return serializers.serialize(key, value);
+        }catch (RuntimeException e){
+            logger.warn("redis fallback encode error, key: " + key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 每次解码出新的对象，类型不符或解码失败返回null
+     */
+    private Object decode(String key, Class<?> clazz) {
+        Object value = serializers.deserialize(fallbackCache.get(key), clazz);
+        return clazz.isInstance(value) ? value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<String> keys(Object arg) {
+        return arg instanceof Collection ? (Collection<String>) arg : Collections.singletonList((String) arg);
+    }
+
+    private void evictDirty(RedisUtils redisUtils) {
+        List<String> keys = fallbackCache.drainDirty();
+        if(keys.isEmpty()){
+            return;
+        }
+
+        try{
+            redisUtils.delete(keys);
+            logger.info("redis recovered, evicted {} keys modified during outage", keys.size());
+        }catch (Exception e){
+            logger.error("redis evict error", e);
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * 熔断状态、本地缓存数量
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = circuitBreaker.getMetrics();
+        metrics.put("fallbackSize", fallbackCache.size());
+        return metrics;
+    }
 }
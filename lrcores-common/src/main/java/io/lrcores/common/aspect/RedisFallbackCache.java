@@ -0,0 +1,77 @@
+package io.lrcores.common.aspect;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis本地降级缓存，保存最近读写的值，Redis不可用时返回旧值
+ *
+ * 降级期间修改或删除的key记录下来，Redis恢复后删除，避免Redis中留有旧值
+ *
+ * 每次访问Redis成功都会更新，使用ConcurrentHashMap避免加锁，超过数量时淘汰任意的key
+ *
+ * 保存编码后的字节，每次读取重新解码，调用方修改返回的对象不会影响缓存
+ *
+ */
+class RedisFallbackCache {
+    private final int maxSize;
+    private final Map<String, byte[]> cache = new ConcurrentHashMap<>();
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+
+    RedisFallbackCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    byte[] get(String key) {
+        return cache.get(key);
+    }
+
+    void put(String key, byte[] value) {
+        if(value == null){
+            cache.remove(key);
+            return ;
+        }
+
+        if(cache.put(key, value) == null && cache.size() > maxSize){
+            Iterator<String> iterator = cache.keySet().iterator();
+            while(cache.size() > maxSize && iterator.hasNext()){
+                String eldest = iterator.next();
+                if(!eldest.equals(key)){
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    void remove(String key) {
+        cache.remove(key);
+    }
+
+    /**
+     * 降级期间的修改
+     */
+    void putDirty(String key, byte[] value) {
+        put(key, value);
+        if(dirtyKeys.size() < maxSize){
+            dirtyKeys.add(key);
+        }
+    }
+
+    boolean hasDirty() {
+        return !dirtyKeys.isEmpty();
+    }
+
+    List<String> drainDirty() {
+        List<String> keys = new ArrayList<>();
+        Iterator<String> iterator = dirtyKeys.iterator();
+        while(iterator.hasNext()){
+            keys.add(iterator.next());
+            iterator.remove();
+        }
+        return keys;
+    }
+
+    int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,24 @@
+package io.lrcores.common.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lrcores.common.utils.JsonCodec;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON配置
+ *
+ * ObjectMapper由Spring Boot的Jackson2ObjectMapperBuilder创建，应用spring.jackson配置，Spring MVC与JsonCodec共用同一个
+ *
+ */
+@Configuration
+public class JsonConfig {
+
+    @Bean
+    public ObjectMapper objectMapper(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper objectMapper = JsonCodec.configure(builder).build();
+        JsonCodec.setObjectMapper(objectMapper);
+        return objectMapper;
+    }
+}
@@ -0,0 +1,48 @@
+package io.lrcores.common.metrics;
+
+import io.lrcores.common.exception.RRException;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import org.apache.commons.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Prometheus指标
+ *
+ * 匿名访问，需要配置访问令牌，未配置时不开放
+ *
+ */
+@RestController
+@ConditionalOnProperty(prefix = "lrcores.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsController {
+    @Autowired
+    private PrometheusMeterRegistry registry;
+    /**
+     * 访问令牌，为空时不开放
+     */
+    @Value("${lrcores.metrics.token:}")
+    private String token;
+
+    @GetMapping(value = "/metrics/prometheus", produces = TextFormat.CONTENT_TYPE_004)
+    public String prometheus(@RequestParam(value = "token", required = false) String token,
+                             HttpServletResponse response) throws IOException {
+        if(StringUtils.isBlank(this.token)){
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return null;
+        }
+        if(token == null || !MessageDigest.isEqual(this.token.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))){
+            throw new RRException("token无效", 401);
+        }
+        return registry.scrape();
+    }
+}
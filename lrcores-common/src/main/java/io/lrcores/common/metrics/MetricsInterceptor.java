@@ -0,0 +1,67 @@
+package io.lrcores.common.metrics;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 接口耗时统计，按请求方法、路径模板、状态码分组
+ *
+ */
+@Component
+public class MetricsInterceptor implements HandlerInterceptor {
+    private final static String START_TIME = MetricsInterceptor.class.getName() + ".START_TIME";
+
+    /**  按请求方法、路径模板、状态码、异常缓存的Timer  */
+    private final Map<List<String>, Timer> timers = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_TIME, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object startTime = request.getAttribute(START_TIME);
+        if(startTime == null){
+            return;
+        }
+
+        long time = System.nanoTime() - (Long) startTime;
+        List<String> tags = Arrays.asList(request.getMethod(), getUri(request, response),
+                String.valueOf(response.getStatus()), ex == null ? "None" : ex.getClass().getSimpleName());
+        Timer timer = timers.get(tags);
+        if(timer == null){
+            timer = timers.computeIfAbsent(tags, k -> Timer.builder("http.server.requests")
+                    .tag("method", k.get(0))
+                    .tag("uri", k.get(1))
+                    .tag("status", k.get(2))
+                    .tag("exception", k.get(3))
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry));
+        }
+        timer.record(time, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 使用路径模板，如：/sys/user/info/{userId}，避免路径参数导致指标过多
+     */
+    private String getUri(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if(pattern != null){
+            return pattern.toString();
+        }
+        return response.getStatus() == HttpServletResponse.SC_NOT_FOUND ? "NOT_FOUND" : "UNKNOWN";
+    }
+}
@@ -0,0 +1,40 @@
+package io.lrcores.common.mybatis;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+
+/**
+ * 分页对象，可以要求精确的总记录数，并标记总记录数是否为估算值
+ *
+ */
+public class CountPage<T> extends Page<T> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 是否需要精确的总记录数，不使用缓存和估算值
+     */
+    private boolean exactCount;
+    /**
+     * 总记录数是否为估算值
+     */
+    private boolean estimated;
+
+    public CountPage(long current, long size) {
+        super(current, size);
+    }
+
+    public boolean isExactCount() {
+        return exactCount;
+    }
+
+    public void setExactCount(boolean exactCount) {
+        this.exactCount = exactCount;
+    }
+
+    public boolean isEstimated() {
+        return estimated;
+    }
+
+    public void setEstimated(boolean estimated) {
+        this.estimated = estimated;
+    }
+}
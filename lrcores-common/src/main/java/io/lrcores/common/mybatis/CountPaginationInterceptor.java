@@ -0,0 +1,253 @@
+package io.lrcores.common.mybatis;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.PaginationInterceptor;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分页插件，按mapper配置总记录数的查询方式
+ *
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class CountPaginationInterceptor extends PaginationInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(CountPaginationInterceptor.class);
+
+    private final Map<String, CountStrategy> strategies = new ConcurrentHashMap<>();
+    /**  mapper -> (count语句+参数 -> 总记录数)  */
+    private final Map<String, Map<String, CachedCount>> cache = new ConcurrentHashMap<>();
+    private CountStrategy defaultStrategy = CountStrategy.EXACT;
+    /**  缓存时间(毫秒)  */
+    private long cacheTtl = 30 * 1000L;
+    /**  每个mapper最多缓存的查询条件数  */
+    private int cacheSize = 256;
+    /**  估算值超过该值时使用估算值，否则执行count查询  */
+    private long estimateThreshold = 100000L;
+
+    /**
+     * 指定mapper的总记录数查询方式
+     */
+    public CountPaginationInterceptor setStrategy(Class<?> mapperClass, CountStrategy strategy) {
+        strategies.put(mapperClass.getName(), strategy);
+        return this;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (invocation.getTarget() instanceof Executor) {
+            Object result = invocation.proceed();
+            evict((MappedStatement) invocation.getArgs()[0]);
+            return result;
+        }
+        return super.intercept(invocation);
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        if (target instanceof StatementHandler || target instanceof Executor) {
+            return Plugin.wrap(target, this);
+        }
+        return target;
+    }
+
+    @Override
+    protected void queryTotal(boolean overflowCurrent, String sql, MappedStatement mappedStatement, BoundSql boundSql, IPage page, Connection connection) {
+        String namespace = getNamespace(mappedStatement);
+        CountStrategy strategy = strategies.getOrDefault(namespace, defaultStrategy);
+        if (strategy == CountStrategy.EXACT) {
+            super.queryTotal(overflowCurrent, sql, mappedStatement, boundSql, page, connection);
+            return;
+        }
+
+        boolean exactCount = page instanceof CountPage && ((CountPage) page).isExactCount();
+        String key = sql + '\n' + getParameterValues(mappedStatement, boundSql);
+        Map<String, CachedCount> counts = cache.computeIfAbsent(namespace, k -> new ConcurrentHashMap<>());
+
+        CachedCount cached = exactCount ? null : counts.get(key);
+        if (cached == null || cached.expireAt < System.currentTimeMillis()) {
+            long estimate = -1;
+            if (strategy == CountStrategy.ESTIMATED && !exactCount) {
+                Table table = getWholeTable(sql);
+                if (table != null) {
+                    estimate = estimate(table, connection);
+                }
+            }
+
+            if (estimate >= estimateThreshold) {
+                cached = new CachedCount(estimate, true, System.currentTimeMillis() + cacheTtl);
+            } else {
+                super.queryTotal(overflowCurrent, sql, mappedStatement, boundSql, page, connection);
+                cached = new CachedCount(page.getTotal(), false, System.currentTimeMillis() + cacheTtl);
+            }
+
+            if (counts.size() >= cacheSize) {
+                counts.clear();
+            }
+            counts.put(key, cached);
+        }
+
+        page.setTotal(cached.total);
+        if (page instanceof CountPage) {
+            ((CountPage) page).setEstimated(cached.estimated);
+        }
+        //溢出总页数，设置第一页
+        if (overflowCurrent && page.getCurrent() > page.getPages()) {
+            page.setCurrent(1);
+        }
+    }
+
+    /**
+     * 单表、无查询条件的count语句查询的表，否则返回null
+     * TABLE_ROWS是整张表的估算行数，有查询条件时不能使用
+     */
+    private Table getWholeTable(String sql) {
+        try {
+            Statement statement = CCJSqlParserUtil.parse(sql);
+            if (!(statement instanceof Select) || !(((Select) statement).getSelectBody() instanceof PlainSelect)) {
+                return null;
+            }
+            PlainSelect select = (PlainSelect) ((Select) statement).getSelectBody();
+            if (!(select.getFromItem() instanceof Table) || select.getWhere() != null || select.getJoins() != null
+                    || select.getGroupBy() != null || select.getHaving() != null || select.getDistinct() != null) {
+                return null;
+            }
+            return (Table) select.getFromItem();
+        } catch (JSQLParserException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 数据库估算的表行数，不支持或没有统计信息时返回-1
+     */
+    private long estimate(Table table, Connection connection) {
+        try {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if (!"MySQL".equalsIgnoreCase(product) && !"MariaDB".equalsIgnoreCase(product)) {
+                return -1;
+            }
+
+            String sql = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND TABLE_NAME = ?";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, unquote(table.getSchemaName()));
+                statement.setString(2, unquote(table.getName()));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return -1;
+                    }
+                    long rows = resultSet.getLong(1);
+                    //视图等没有统计信息的为NULL，不是0行
+                    return resultSet.wasNull() ? -1 : rows;
+                }
+            }
+        } catch (SQLException e) {
+            logger.debug("estimate count error, table: {}", table, e);
+            return -1;
+        }
+    }
+
+    private static String unquote(String name) {
+        if (name != null && name.length() > 1 && name.charAt(0) == '`' && name.charAt(name.length() - 1) == '`') {
+            return name.substring(1, name.length() - 1);
+        }
+        return name;
+    }
+
+    /**
+     * count语句的参数值，作为缓存key的一部分
+     */
+    private String getParameterValues(MappedStatement mappedStatement, BoundSql boundSql) {
+        Configuration configuration = mappedStatement.getConfiguration();
+        Object parameterObject = boundSql.getParameterObject();
+        MetaObject metaObject = null;
+
+        StringBuilder values = new StringBuilder();
+        for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+            String property = parameterMapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameterObject);
+                }
+                value = metaObject.getValue(property);
+            }
+            values.append(value).append(',');
+        }
+        return values.toString();
+    }
+
+    private void evict(MappedStatement mappedStatement) {
+        String namespace = getNamespace(mappedStatement);
+        //估算值本身不精确，写操作不清除
+        if (strategies.getOrDefault(namespace, defaultStrategy) == CountStrategy.ESTIMATED) {
+            return;
+        }
+        cache.remove(namespace);
+    }
+
+    private static String getNamespace(MappedStatement mappedStatement) {
+        String id = mappedStatement.getId();
+        return id.substring(0, id.lastIndexOf('.'));
+    }
+
+    public void setDefaultStrategy(CountStrategy defaultStrategy) {
+        this.defaultStrategy = defaultStrategy;
+    }
+
+    public void setCacheTtl(long cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public void setEstimateThreshold(long estimateThreshold) {
+        this.estimateThreshold = estimateThreshold;
+    }
+
+    private static class CachedCount {
+        private final long total;
+        private final boolean estimated;
+        private final long expireAt;
+
+        CachedCount(long total, boolean estimated, long expireAt) {
+            this.total = total;
+            this.estimated = estimated;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.lrcores.common.mybatis;
+
+/**
+ * 分页总记录数的查询方式
+ *
+ */
+public enum CountStrategy {
+    /**
+     * 每次执行count查询
+     */
+    EXACT,
+    /**
+     * 相同查询条件的结果缓存一段时间，同一mapper有写操作时清除
+     */
+    CACHED,
+    /**
+     * 无查询条件且超过阈值时使用数据库估算的行数(MySQL information_schema.TABLES.TABLE_ROWS)，有查询条件时同CACHED，适合日志等大表
+     */
+    ESTIMATED
+}
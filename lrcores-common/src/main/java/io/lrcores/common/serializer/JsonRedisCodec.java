@@ -0,0 +1,43 @@
+package io.lrcores.common.serializer;
+
+import io.lrcores.common.utils.JsonCodec;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON编码
+ *
+ */
+@Component
+public class JsonRedisCodec implements RedisCodec {
+    public final static String NAME = "json";
+
+    @Override
+    public byte getId() {
+        return 1;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        if(value instanceof Integer || value instanceof Long || value instanceof Float ||
+                value instanceof Double || value instanceof Boolean || value instanceof String){
+            return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        }
+        return JsonCodec.toJsonBytes(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T decode(byte[] data, int offset, int length, Class<T> clazz) {
+        if(clazz == String.class){
+            return (T) new String(data, offset, length, StandardCharsets.UTF_8);
+        }
+        return JsonCodec.parse(data, offset, length, clazz);
+    }
+}
@@ -0,0 +1,67 @@
+package io.lrcores.common.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kryo二进制编码，只写字段值不写字段名，体积小、无需反射解析JSON
+ *
+ * Kryo非线程安全，每个线程持有一个实例，类的序列化器在实例内缓存，只解析一次
+ *
+ * 按字段名写入(CompatibleFieldSerializer)，类增减字段后新旧版本节点可互相读取
+ *
+ */
+@Component
+public class KryoRedisCodec implements RedisCodec {
+    public final static String NAME = "kryo";
+
+    private final ThreadLocal<Kryo> kryos = ThreadLocal.withInitial(() -> {
+        Kryo kryo = new Kryo();
+        kryo.setReferences(false);
+        kryo.setRegistrationRequired(false);
+        kryo.setDefaultSerializer(CompatibleFieldSerializer.class);
+        //没有无参构造方法的类，直接实例化
+        ((Kryo.DefaultInstantiatorStrategy) kryo.getInstantiatorStrategy())
+                .setFallbackInstantiatorStrategy(new StdInstantiatorStrategy());
+        return kryo;
+    });
+
+    private final ThreadLocal<Output> outputs = ThreadLocal.withInitial(() -> new Output(4096, -1));
+
+    /**
+     * 原按字段顺序写入的格式ID为2，改为按字段名写入后使用3，旧数据当作未命中
+     */
+    @Override
+    public byte getId() {
+        return 3;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        Output output = outputs.get();
+        output.clear();
+        kryos.get().writeObject(output, value);
+        return output.toBytes();
+    }
+
+    @Override
+    public <T> T decode(byte[] data, int offset, int length, Class<T> clazz) {
+        return kryos.get().readObject(new Input(data, offset, length), clazz);
+    }
+
+    /**
+     * 深拷贝，不经过字节数组
+     */
+    public <T> T copy(T value) {
+        return kryos.get().copy(value);
+    }
+}
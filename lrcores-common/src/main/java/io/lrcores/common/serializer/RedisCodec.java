@@ -0,0 +1,22 @@
+package io.lrcores.common.serializer;
+
+/**
+ * Redis值编码，注册为Spring Bean即可通过配置按key前缀选用
+ *
+ */
+public interface RedisCodec {
+
+    /**
+     * 编码唯一标识，写入数据头部，取值范围1~127，修改后已缓存的数据将无法解析
+     */
+    byte getId();
+
+    /**
+     * 编码名称，配置时使用
+     */
+    String getName();
+
+    byte[] encode(Object value);
+
+    <T> T decode(byte[] data, int offset, int length, Class<T> clazz);
+}
@@ -0,0 +1,50 @@
+package io.lrcores.common.serializer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Redis值编码配置
+ *
+ */
+@ConfigurationProperties(prefix = "lrcores.redis.serializer")
+public class RedisSerializerProperties {
+    /**
+     * 默认编码
+     */
+    private String codec = JsonRedisCodec.NAME;
+    /**
+     * 超过该字节数使用LZ4压缩，-1不压缩
+     */
+    private int compressThreshold = 4096;
+    /**
+     * 按key前缀指定编码，匹配最长的前缀
+     */
+    private Map<String, String> prefixes = new LinkedHashMap<>();
+
+    public String getCodec() {
+        return codec;
+    }
+
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    public int getCompressThreshold() {
+        return compressThreshold;
+    }
+
+    public void setCompressThreshold(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    public Map<String, String> getPrefixes() {
+        return prefixes;
+    }
+
+    public void setPrefixes(Map<String, String> prefixes) {
+        this.prefixes = prefixes;
+    }
+}
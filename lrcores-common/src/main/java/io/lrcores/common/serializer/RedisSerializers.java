@@ -0,0 +1,156 @@
+package io.lrcores.common.serializer;
+
+import io.lrcores.common.exception.RRException;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis值编解码，按key前缀选择编码，超过阈值时LZ4压缩
+ *
+ * 数据格式：1字节头部(低7位编码ID，最高位是否压缩) + [4字节原始长度] + 数据
+ *
+ */
+@Component
+@EnableConfigurationProperties(RedisSerializerProperties.class)
+public class RedisSerializers {
+    private Logger logger = LoggerFactory.getLogger(getClass());
+    private final static int COMPRESSED = 0x80;
+
+    private final RedisCodec[] codecs = new RedisCodec[128];
+    private final RedisCodec defaultCodec;
+    private final Map<String, RedisCodec> prefixMap = new HashMap<>();
+    /**  按前缀长度倒序，优先匹配最长的前缀  */
+    private volatile List<Map.Entry<String, RedisCodec>> prefixes = new ArrayList<>();
+    private final int compressThreshold;
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+    @Autowired
+    public RedisSerializers(List<RedisCodec> codecList, RedisSerializerProperties properties) {
+        for(RedisCodec codec : codecList){
+            if(codec.getId() <= 0 || codecs[codec.getId()] != null){
+                throw new RRException("Redis编码ID重复或无效：" + codec.getName());
+            }
+            codecs[codec.getId()] = codec;
+        }
+
+        this.defaultCodec = getCodec(properties.getCodec());
+        this.compressThreshold = properties.getCompressThreshold();
+
+        for(Map.Entry<String, String> entry : properties.getPrefixes().entrySet()){
+            prefixMap.put(entry.getKey(), getCodec(entry.getValue()));
+        }
+        rebuildPrefixes();
+    }
+
+    private RedisCodec getCodec(String name) {
+        for(RedisCodec codec : codecs){
+            if(codec != null && codec.getName().equals(name)){
+                return codec;
+            }
+        }
+        throw new RRException("Redis编码不存在：" + name);
+    }
+
+    /**
+     * 指定key前缀使用的编码，已配置的前缀不覆盖
+     */
+    public synchronized void registerPrefix(String prefix, String codecName) {
+        if(prefixMap.containsKey(prefix)){
+            return;
+        }
+        prefixMap.put(prefix, getCodec(codecName));
+        rebuildPrefixes();
+    }
+
+    private synchronized void rebuildPrefixes() {
+        List<Map.Entry<String, RedisCodec>> list = new ArrayList<>(prefixMap.entrySet());
+        list.sort((a, b) -> b.getKey().length() - a.getKey().length());
+        prefixes = list;
+    }
+
+    /**
+     * 获取key对应的编码
+     */
+    public RedisCodec getCodecByKey(String key) {
+        for(Map.Entry<String, RedisCodec> entry : prefixes){
+            if(key.startsWith(entry.getKey())){
+                return entry.getValue();
+            }
+        }
+        return defaultCodec;
+    }
+
+    public byte[] serialize(String key, Object value) {
+        RedisCodec codec = getCodecByKey(key);
+        byte[] data = codec.encode(value);
+
+        if(compressThreshold < 0 || data.length <= compressThreshold){
+            byte[] bytes = new byte[data.length + 1];
+            bytes[0] = codec.getId();
+            System.arraycopy(data, 0, bytes, 1, data.length);
+            return bytes;
+        }
+
+        int maxLength = compressor.maxCompressedLength(data.length);
+        byte[] bytes = new byte[maxLength + 5];
+        bytes[0] = (byte) (codec.getId() | COMPRESSED);
+        writeInt(bytes, 1, data.length);
+        int length = compressor.compress(data, 0, data.length, bytes, 5, maxLength);
+
+        byte[] result = new byte[length + 5];
+        System.arraycopy(bytes, 0, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * 解码，无法识别或解码失败的数据(如旧格式的缓存、类结构不兼容)返回null，当作未命中处理
+     */
+    public <T> T deserialize(byte[] bytes, Class<T> clazz) {
+        if(bytes == null || bytes.length == 0){
+            return null;
+        }
+
+        int header = bytes[0] & 0xFF;
+        RedisCodec codec = codecs[header & ~COMPRESSED];
+        if(codec == null){
+            return null;
+        }
+
+        try{
+            if((header & COMPRESSED) == 0){
+                return codec.decode(bytes, 1, bytes.length - 1, clazz);
+            }
+
+            int length = readInt(bytes, 1);
+            byte[] data = decompressor.decompress(bytes, 5, length);
+            return codec.decode(data, 0, length, clazz);
+        }catch (RuntimeException e){
+            logger.warn("redis decode error, codec: " + codec.getName() + ", type: " + clazz.getName(), e);
+            return null;
+        }
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+}
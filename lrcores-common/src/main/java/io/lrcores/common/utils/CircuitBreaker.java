@@ -0,0 +1,137 @@
+package io.lrcores.common.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 熔断器
+ *
+ * 连续失败达到阈值后熔断，熔断期间直接拒绝；熔断时长过后放行一个请求探测，成功则恢复，失败则继续熔断
+ *
+ */
+public class CircuitBreaker {
+    private static Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        /**  正常  */
+        CLOSED,
+        /**  熔断  */
+        OPEN,
+        /**  探测中  */
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openTime;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile long openUntil;
+
+    private final LongAdder openCount = new LongAdder();
+    private final LongAdder halfOpenCount = new LongAdder();
+    private final LongAdder closeCount = new LongAdder();
+    private final LongAdder rejectCount = new LongAdder();
+
+    /**
+     * @param failureThreshold  连续失败次数
+     * @param openTime          熔断时长，单位：毫秒
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openTime) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openTime = openTime;
+    }
+
+    /**
+     * 是否允许请求，返回false时应直接降级
+     */
+    public boolean allowRequest() {
+        State current = state.get();
+        if(current == State.CLOSED){
+            return true;
+        }
+
+        //熔断时长已过，只允许一个请求探测
+        if(current == State.OPEN && System.currentTimeMillis() >= openUntil
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)){
+            halfOpenCount.increment();
+            logger.info("circuit breaker [{}] half open", name);
+            return true;
+        }
+
+        rejectCount.increment();
+        return false;
+    }
+
+    public void onSuccess() {
+        failures.set(0);
+        if(state.get() != State.CLOSED && state.compareAndSet(State.HALF_OPEN, State.CLOSED)){
+            closeCount.increment();
+            logger.info("circuit breaker [{}] closed", name);
+        }
+    }
+
+    public void onFailure() {
+        if(state.get() == State.HALF_OPEN){
+            open(State.HALF_OPEN);
+            return;
+        }
+
+        if(failures.incrementAndGet() >= failureThreshold){
+            open(State.CLOSED);
+        }
+    }
+
+    private void open(State from) {
+        openUntil = System.currentTimeMillis() + openTime;
+        if(state.compareAndSet(from, State.OPEN)){
+            openCount.increment();
+            logger.warn("circuit breaker [{}] open, retry after {}ms", name, openTime);
+        }
+    }
+
+    public long getOpenCount() {
+        return openCount.sum();
+    }
+
+    public long getHalfOpenCount() {
+        return halfOpenCount.sum();
+    }
+
+    public long getCloseCount() {
+        return closeCount.sum();
+    }
+
+    public long getRejectCount() {
+        return rejectCount.sum();
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 状态及状态切换次数
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("state", state.get().name());
+        metrics.put("openCount", openCount.sum());
+        metrics.put("halfOpenCount", halfOpenCount.sum());
+        metrics.put("closeCount", closeCount.sum());
+        metrics.put("rejectCount", rejectCount.sum());
+        return metrics;
+    }
+}
@@ -3,15 +3,25 @@ package io.lrcores.common.utils;
 import org.apache.commons.lang.StringUtils;
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
-import org.joda.time.format.DateTimeFormat;
-import org.joda.time.format.DateTimeFormatter;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 日期处理
  *
+ * 格式化器按pattern缓存(线程安全)，yyyy-MM-dd、yyyy-MM-dd HH:mm:ss两种格式直接按数字写入字符数组
+ *
+ * 解析与Joda兼容：数字字段后面不是数字字段时，可以不补0(如2021-2-3)，没有年份时按1970年
+ *
  */
 public class DateUtils {
     /**
@@ -23,6 +33,15 @@ public class DateUtils {
      */
     public final static String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
 
+    private final static long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+    /**  解析失败，交给通用格式化器处理  */
+    private final static long INVALID = Long.MIN_VALUE;
+    /**  系统默认时区，类加载时确定，避免每次调用TimeZone.getDefault()复制对象  */
+    private final static TimeZone TIME_ZONE = TimeZone.getDefault();
+    private final static ZoneId ZONE_ID = TIME_ZONE.toZoneId();
+    private final static Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+    private final static Map<String, DateTimeFormatter> PARSERS = new ConcurrentHashMap<>();
+
     /*** 日期格式化 日期格式为：yyyy-MM-dd* @param date  日期* @return  返回yyyy-MM-dd格式日期*/
     public static String format(Date date) {
         return format(date, DATE_PATTERN);
@@ -30,11 +49,20 @@ public class DateUtils {
 
     /*** 日期格式化 日期格式为：yyyy-MM-dd* @param date  日期* @param pattern  格式，如：DateUtils.DATE_TIME_PATTERN* @return  返回yyyy-MM-dd格式日期*/
     public static String format(Date date, String pattern) {
-        if (date != null) {
-            SimpleDateFormat df = new SimpleDateFormat(pattern);
-            return df.format(date);
+        if (date == null) {
+            return null;
+        }
+
+        String value = null;
+        if (DATE_TIME_PATTERN.equals(pattern)) {
+            value = formatFast(date.getTime(), true);
+        } else if (DATE_PATTERN.equals(pattern)) {
+            value = formatFast(date.getTime(), false);
+        }
+        if (value != null) {
+            return value;
         }
-        return null;
+        return getFormatter(pattern).format(date.toInstant().atZone(ZONE_ID));
     }
 
     /*** 字符串转换成日期* @param strDate 日期字符串* @param pattern 日期的格式，如：DateUtils.DATE_TIME_PATTERN*/
@@ -42,8 +70,270 @@ public class DateUtils {
         if (StringUtils.isBlank(strDate)) {
             return null;
         }
-        DateTimeFormatter fmt = DateTimeFormat.forPattern(pattern);
-        return fmt.parseLocalDateTime(strDate).toDate();
+
+        long millis = INVALID;
+        if (DATE_TIME_PATTERN.equals(pattern)) {
+            millis = parseFast(strDate, true);
+        } else if (DATE_PATTERN.equals(pattern)) {
+            millis = parseFast(strDate, false);
+        }
+        if (millis != INVALID) {
+            return new Date(millis);
+        }
+
+        try {
+            LocalDateTime dateTime = getParser(pattern).parse(strDate, LocalDateTime::from);
+            //夏令时重叠时段取标准时间，与java.util.Date一致
+            return Date.from(dateTime.atZone(ZONE_ID).withLaterOffsetAtOverlap().toInstant());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid format: \"" + strDate + "\"", e);
+        }
+    }
+
+    /**
+     * 获取pattern对应的格式化器
+     */
+    private static DateTimeFormatter getFormatter(String pattern) {
+        DateTimeFormatter formatter = FORMATTERS.get(pattern);
+        if (formatter != null) {
+            return formatter;
+        }
+        return FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
+    }
+
+    /**
+     * 获取pattern对应的解析器，未指定的字段按1970-01-01 00:00:00解析，严格校验日期
+     */
+    private static DateTimeFormatter getParser(String pattern) {
+        DateTimeFormatter parser = PARSERS.get(pattern);
+        if (parser != null) {
+            return parser;
+        }
+        return PARSERS.computeIfAbsent(pattern, DateUtils::buildParser);
+    }
+
+    private static DateTimeFormatter buildParser(String pattern) {
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+        List<String> tokens = tokenize(pattern);
+        Set<Character> letters = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            char letter = token.charAt(0);
+            if (letter == '\'') {
+                builder.appendPattern(token);
+                continue;
+            }
+            if (!isLetter(letter)) {
+                builder.appendLiteral(token);
+                continue;
+            }
+            letters.add(letter);
+
+            ChronoField field = numericField(token);
+            if (field == null) {
+                builder.appendPattern(token);
+            } else if (i + 1 < tokens.size() && numericField(tokens.get(i + 1)) != null) {
+                //后面紧跟数字字段，与Joda一致按固定位数解析，如yyyyMMdd
+                builder.appendValue(field, token.length());
+            } else {
+                int maxWidth = field == ChronoField.YEAR_OF_ERA ? 9 : field == ChronoField.DAY_OF_YEAR ? 3 : 2;
+                builder.appendValue(field, 1, Math.max(token.length(), maxWidth), SignStyle.NOT_NEGATIVE);
+            }
+        }
+
+        //yyyy是纪元年份，严格模式下需要纪元
+        if (!letters.contains('G') && !letters.contains('u')) {
+            builder.parseDefaulting(ChronoField.ERA, 1);
+        }
+        if (!letters.contains('y') && !letters.contains('u') && !letters.contains('Y')) {
+            builder.parseDefaulting(ChronoField.YEAR_OF_ERA, 1970);
+        }
+        if (!letters.contains('D')) {
+            builder.parseDefaulting(ChronoField.MONTH_OF_YEAR, 1)
+                    .parseDefaulting(ChronoField.DAY_OF_MONTH, 1);
+        }
+        if (!letters.contains('H') && !letters.contains('h') && !letters.contains('k') && !letters.contains('K')) {
+            builder.parseDefaulting(ChronoField.HOUR_OF_DAY, 0);
+        }
+        return builder.parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0)
+                .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
+                .toFormatter()
+                .withResolverStyle(ResolverStyle.STRICT);
+    }
+
+    /**
+     * 拆分pattern：连续的相同字母、引号内的文本(含引号)、其他单个字符
+     */
+    private static List<String> tokenize(String pattern) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            int end = i + 1;
+            if (c == '\'') {
+                while (end < pattern.length()) {
+                    if (pattern.charAt(end++) == '\'') {
+                        //两个引号表示引号本身
+                        if (end < pattern.length() && pattern.charAt(end) == '\'') {
+                            end++;
+                        } else {
+                            break;
+                        }
+                    }
+                }
+            } else if (isLetter(c)) {
+                while (end < pattern.length() && pattern.charAt(end) == c) {
+                    end++;
+                }
+            }
+            tokens.add(pattern.substring(i, end));
+            i = end;
+        }
+        return tokens;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * 可以不补0解析的数字字段，其他返回null
+     */
+    private static ChronoField numericField(String token) {
+        switch (token.charAt(0)) {
+            case 'y':
+                //yy是两位年份，按原格式解析
+                return token.length() == 2 ? null : ChronoField.YEAR_OF_ERA;
+            case 'M':
+                //MMM以上是月份名称
+                return token.length() > 2 ? null : ChronoField.MONTH_OF_YEAR;
+            case 'D':
+                return ChronoField.DAY_OF_YEAR;
+            case 'd':
+                return ChronoField.DAY_OF_MONTH;
+            case 'H':
+                return ChronoField.HOUR_OF_DAY;
+            case 'k':
+                return ChronoField.CLOCK_HOUR_OF_DAY;
+            case 'K':
+                return ChronoField.HOUR_OF_AMPM;
+            case 'h':
+                return ChronoField.CLOCK_HOUR_OF_AMPM;
+            case 'm':
+                return ChronoField.MINUTE_OF_HOUR;
+            case 's':
+                return ChronoField.SECOND_OF_MINUTE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 按yyyy-MM-dd[ HH:mm:ss]格式化，年份不在1~9999之间返回null
+     */
+    private static String formatFast(long millis, boolean withTime) {
+        long local = millis + TIME_ZONE.getOffset(millis);
+        long days = Math.floorDiv(local, MILLIS_PER_DAY);
+        int seconds = (int) (Math.floorMod(local, MILLIS_PER_DAY) / 1000);
+
+        //公历日期换算，以0000-03-01为起点，每400年一个周期
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        int doe = (int) (z - era * 146097);
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = era * 400 + yoe + (month <= 2 ? 1 : 0);
+        if (year < 1 || year > 9999) {
+            return null;
+        }
+
+        char[] buf = new char[withTime ? 19 : 10];
+        writeDigits(buf, 0, (int) year, 4);
+        buf[4] = '-';
+        writeDigits(buf, 5, month, 2);
+        buf[7] = '-';
+        writeDigits(buf, 8, day, 2);
+        if (withTime) {
+            buf[10] = ' ';
+            writeDigits(buf, 11, seconds / 3600, 2);
+            buf[13] = ':';
+            writeDigits(buf, 14, seconds / 60 % 60, 2);
+            buf[16] = ':';
+            writeDigits(buf, 17, seconds % 60, 2);
+        }
+        return new String(buf);
+    }
+
+    /**
+     * 按yyyy-MM-dd[ HH:mm:ss]解析，格式不符、日期无效或处于时区切换附近时返回INVALID
+     */
+    private static long parseFast(String str, boolean withTime) {
+        if (str.length() != (withTime ? 19 : 10) || str.charAt(4) != '-' || str.charAt(7) != '-') {
+            return INVALID;
+        }
+        if (withTime && (str.charAt(10) != ' ' || str.charAt(13) != ':' || str.charAt(16) != ':')) {
+            return INVALID;
+        }
+
+        int year = readDigits(str, 0, 4);
+        int month = readDigits(str, 5, 2);
+        int day = readDigits(str, 8, 2);
+        int hour = withTime ? readDigits(str, 11, 2) : 0;
+        int minute = withTime ? readDigits(str, 14, 2) : 0;
+        int second = withTime ? readDigits(str, 17, 2) : 0;
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return INVALID;
+        }
+
+        //公历日期换算，与formatFast互逆
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        long days = era * 146097L + doe - 719468;
+
+        long local = days * MILLIS_PER_DAY + (hour * 3600 + minute * 60 + second) * 1000L;
+        long utc = local - TIME_ZONE.getRawOffset();
+        int offset = TIME_ZONE.getOffset(utc);
+        //前后一天内偏移量有变化(夏令时切换)，交给通用格式化器处理重叠和间隙
+        if (TIME_ZONE.getOffset(utc - MILLIS_PER_DAY) != offset || TIME_ZONE.getOffset(utc + MILLIS_PER_DAY) != offset) {
+            return INVALID;
+        }
+        return local - offset;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static void writeDigits(char[] buf, int offset, int value, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * 读取固定位数的数字，包含非数字字符时返回-1
+     */
+    private static int readDigits(String str, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = str.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
     }
 
     /*** 根据周数，获取开始日期、结束日期* @param week  周期  0本周，-1上周，-2上上周，1下周，2下下周* @return  返回date[0]开始日期、date[1]结束日期*/
@@ -1,12 +1,9 @@
 package io.lrcores.common.utils;
 
-import org.springframework.util.StringUtils;
-
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.List;
 
 /**
  * @ClassName IdCardUtils
@@ -43,60 +40,61 @@ import java.util.regex.Pattern;
  * 3.用加出来和除以11，看余数是多少
  * 4.余数只可能有0 1 2 3 4 5 6 7 8 9 10这11个数字，分别对应的最后一位身份证的号码为：1 0 X 9 8 7 6 5 4 3
  * <p>
+ * 逐字符校验，不使用正则，省份按数组下标查找，批量导入时使用validateAll
+ * <p>
  * @Date 2020/5/28 14:48
  * @Version 1.0
  */
 public class IdCardUtils {
-    //行政区编码
-    private static final Map<Integer, String> provinceAndCitys = new HashMap() {{
-        put(11, "北京");
-        put(12, "天津");
-        put(13, "河北");
-        put(14, "山西");
-        put(15, "内蒙古");
-        put(21, "辽宁");
-        put(22, "吉林");
-        put(23, "黑龙江");
-        put(31, "上海");
-        put(32, "江苏");
-        put(33, "浙江");
-        put(34, "安徽");
-        put(35, "福建");
-        put(36, "江西");
-        put(37, "山东");
-        put(41, "河南");
-        put(42, "湖北");
-        put(43, "湖南");
-        put(44, "广东");
-        put(45, "广西");
-        put(46, "海南");
-        put(50, "重庆");
-        put(51, "四川");
-        put(52, "贵州");
-        put(53, "云南");
-        put(54, "西藏");
-        put(61, "陕西");
-        put(62, "甘肃");
-        put(63, "青海");
-        put(64, "宁夏");
-        put(65, "新疆");
-        put(71, "台湾");
-        put(81, "香港");
-        put(82, "澳门");
-        put(91, "国外");
-    }};
+    //行政区编码，下标为省份代码
+    private static final String[] provinceAndCitys = new String[100];
 
+    static {
+        provinceAndCitys[11] = "北京";
+        provinceAndCitys[12] = "天津";
+        provinceAndCitys[13] = "河北";
+        provinceAndCitys[14] = "山西";
+        provinceAndCitys[15] = "内蒙古";
+        provinceAndCitys[21] = "辽宁";
+        provinceAndCitys[22] = "吉林";
+        provinceAndCitys[23] = "黑龙江";
+        provinceAndCitys[31] = "上海";
+        provinceAndCitys[32] = "江苏";
+        provinceAndCitys[33] = "浙江";
+        provinceAndCitys[34] = "安徽";
+        provinceAndCitys[35] = "福建";
+        provinceAndCitys[36] = "江西";
+        provinceAndCitys[37] = "山东";
+        provinceAndCitys[41] = "河南";
+        provinceAndCitys[42] = "湖北";
+        provinceAndCitys[43] = "湖南";
+        provinceAndCitys[44] = "广东";
+        provinceAndCitys[45] = "广西";
+        provinceAndCitys[46] = "海南";
+        provinceAndCitys[50] = "重庆";
+        provinceAndCitys[51] = "四川";
+        provinceAndCitys[52] = "贵州";
+        provinceAndCitys[53] = "云南";
+        provinceAndCitys[54] = "西藏";
+        provinceAndCitys[61] = "陕西";
+        provinceAndCitys[62] = "甘肃";
+        provinceAndCitys[63] = "青海";
+        provinceAndCitys[64] = "宁夏";
+        provinceAndCitys[65] = "新疆";
+        provinceAndCitys[71] = "台湾";
+        provinceAndCitys[81] = "香港";
+        provinceAndCitys[82] = "澳门";
+        provinceAndCitys[91] = "国外";
+    }
 
     /*每位加权因子*/
-    private static final Integer[] powers = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    private static final int[] powers = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
     /*第18位校验码*/
     private static final char[] parityBit = {'1', '0', 'X', '9', '8', '7', '6', '5', '4', '3', '2'};
-    //定义身份证号码长度验证规则
-    private static final Pattern IDCARD_LENGTH_PATTERN = Pattern.compile("^\\d{15}|(\\d{17}(\\d|x|X))$");
-    //15位身份证号码的基本校验
-    private static final Pattern IDCARD15_PATTERN = Pattern.compile("^[1-9]\\d{7}((0[1-9])|(1[0-2]))((0[1-9])|([1-2][0-9])|(3[0-1]))\\d{3}$");
-    //18位身份证号码的基本校验
-    private static final Pattern IDCARD18_PATTERN = Pattern.compile("^[1-9]\\d{5}[1-9]\\d{3}((0[1-9])|(1[0-2]))((0[1-9])|([1-2][0-9])|(3[0-1]))\\d{3}(\\d|x|X)$");
+
+    /*当天日期(yyyyMMdd)及其失效时间，避免每次校验都获取当前日期*/
+    private static volatile int today;
+    private static volatile long todayExpire;
 
 
     /**
@@ -105,103 +103,133 @@ public class IdCardUtils {
      * @param idCard
      * @return true/false  true:表示身份证号码正确；false：表示身份证号码有误
      */
-    public static boolean isValid(String idCard) {
-        //obj在此方法中获取参数值，待校验的身份证号码
-        if (StringUtils.isEmpty(idCard)) {
+    public static boolean isValid(CharSequence idCard) {
+        return isValid(idCard, getToday());
+    }
+
+    /**
+     * 批量校验身份证号码
+     *
+     * @param idCards 一列身份证号码
+     * @return 校验失败的下标
+     */
+    public static BitSet validateAll(List<? extends CharSequence> idCards) {
+        int today = getToday();
+        BitSet failures = new BitSet(idCards.size());
+        for (int i = 0; i < idCards.size(); i++) {
+            if (!isValid(idCards.get(i), today)) {
+                failures.set(i);
+            }
+        }
+        return failures;
+    }
+
+    private static boolean isValid(CharSequence idCard, int today) {
+        //为空不校验
+        if (idCard == null || idCard.length() == 0) {
             return true;
         }
-        Matcher m = IDCARD_LENGTH_PATTERN.matcher(idCard);
-        if (!m.matches()) return false;
         //判断长度为15位或18位
         if (idCard.length() == 15) {
-            return check15IdCardNo(idCard);
+            return check15IdCardNo(idCard, today);
         } else if (idCard.length() == 18) {
-            return check18IdCardNo(idCard);
+            return check18IdCardNo(idCard, today);
         }
-        return true;
+        return false;
     }
 
     /*15位身份证校验*/
-    private static boolean check15IdCardNo(String idCard) {
-        Matcher m = IDCARD15_PATTERN.matcher(idCard);
-        if (!m.matches()) return false;
+    private static boolean check15IdCardNo(CharSequence idCard, int today) {
+        if (!checkDigits(idCard, 15)) return false;
         //校验地址码
-        String addressCode = idCard.substring(0, 6);
-        boolean check = checkAddressCode(addressCode);
-        if (!check) return false;
+        if (!checkAddressCode(idCard)) return false;
         //校验日期码
-        String birDayCode = "19" + idCard.substring(6, 12);
-        return checkBirthDayCode(birDayCode);
+        return checkBirthDayCode(1900 + readInt(idCard, 6, 2), idCard, 8, today);
     }
 
     /*18位身份证校验*/
-    private static boolean check18IdCardNo(String idCard) {
-        Matcher m = IDCARD18_PATTERN.matcher(idCard);
-        if (!m.matches()) return false;
+    private static boolean check18IdCardNo(CharSequence idCard, int today) {
+        if (!checkDigits(idCard, 17)) return false;
         //校验地址码
-        String addressCode = idCard.substring(0, 6);
-        boolean check = checkAddressCode(addressCode);
-        if (!check) return false;
+        if (!checkAddressCode(idCard)) return false;
         //校验日期码
-        String birDayCode = idCard.substring(6, 14);
-        check = checkBirthDayCode(birDayCode);
-        if (!check) return false;
+        if (!checkBirthDayCode(readInt(idCard, 6, 4), idCard, 10, today)) return false;
         //验证校检码
         return checkParityBit(idCard);
     }
 
-    /*校验日期码*/
-    private static boolean checkBirthDayCode(String birDayCode) {
-        Matcher matcher = Pattern.compile("^[1-9]\\d{3}((0[1-9])|(1[0-2]))((0[1-9])|([1-2][0-9])|(3[0-1]))$").matcher(birDayCode);
-        boolean check = matcher.matches();
-        if (!check) return false;
-        int yyyy = Integer.parseInt(birDayCode.substring(0, 4), 10);
-        int mm = Integer.parseInt(birDayCode.substring(4, 6), 10);
-        int dd = Integer.parseInt(birDayCode.substring(6), 10);
-        //身份证生日日期
-        LocalDate birth = LocalDate.of(yyyy, mm - 1, dd);
-        //当前日期
-        LocalDate now = LocalDate.now();
-        if (birth.isAfter(now)) {
-            return false;//生日不能大于当前日期
+    /*前length位是否都是数字*/
+    private static boolean checkDigits(CharSequence idCard, int length) {
+        for (int i = 0; i < length; i++) {
+            char c = idCard.charAt(i);
+            if (c < '0' || c > '9') return false;
         }
         return true;
     }
 
-    /*校验地址码*/
-    private static boolean checkAddressCode(String addressCode) {
-        Matcher matcher = Pattern.compile("^[1-9]\\d{5}$").matcher(addressCode);
-        boolean check = matcher.matches();
-        if (!check) return false;
-        String address = provinceAndCitys.get(Integer.parseInt(addressCode.substring(0, 2)));
-        if (!StringUtils.isEmpty(address)) {
-            return true;
-        } else {
+    /*校验日期码，offset为月份的位置*/
+    private static boolean checkBirthDayCode(int yyyy, CharSequence idCard, int offset, int today) {
+        int mm = readInt(idCard, offset, 2);
+        int dd = readInt(idCard, offset + 2, 2);
+        if (yyyy < 1000 || mm < 1 || mm > 12 || dd < 1 || dd > lengthOfMonth(yyyy, mm)) {
             return false;
         }
+        //生日不能大于当前日期
+        return yyyy * 10000 + mm * 100 + dd <= today;
     }
 
+    /*校验地址码*/
+    private static boolean checkAddressCode(CharSequence idCard) {
+        return idCard.charAt(0) != '0' && provinceAndCitys[readInt(idCard, 0, 2)] != null;
+    }
 
     /*验证校检码*/
-    private static boolean checkParityBit(String idCard) {
+    private static boolean checkParityBit(CharSequence idCard) {
         char parityBit = idCard.charAt(17);
-        if (getParityBit(idCard) == parityBit) {
-            return true;
-        } else {
-            return false;
+        if (parityBit == 'x') {
+            parityBit = 'X';
         }
+        return getParityBit(idCard) == parityBit;
     }
 
     /*计算校检码*/
-    private static char getParityBit(String idCard) {
+    private static char getParityBit(CharSequence idCard) {
         /*加权 */
         int power = 0;
         for (int i = 0; i < 17; i++) {
-            power += Integer.parseInt(String.valueOf(idCard.charAt(i)), 10) * powers[i];
+            power += (idCard.charAt(i) - '0') * powers[i];
         }
         /*取模*/
         int mod = power % 11;
         return parityBit[mod];
     }
 
+    /*读取数字，调用前已校验都是数字*/
+    private static int readInt(CharSequence idCard, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = value * 10 + (idCard.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int yyyy, int mm) {
+        if (mm == 2) {
+            return (yyyy % 4 == 0 && yyyy % 100 != 0) || yyyy % 400 == 0 ? 29 : 28;
+        }
+        return mm == 4 || mm == 6 || mm == 9 || mm == 11 ? 30 : 31;
+    }
+
+    /*当天日期(yyyyMMdd)，过了零点重新获取*/
+    private static int getToday() {
+        long now = System.currentTimeMillis();
+        if (now >= todayExpire) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate date = LocalDate.now(zone);
+            today = date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+            todayExpire = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        return today;
+    }
+
 }
@@ -0,0 +1,66 @@
+package io.lrcores.common.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import io.lrcores.common.exception.RRException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+
+/**
+ * JSON序列化，全局共用一个ObjectMapper(线程安全)
+ *
+ * 项目启动后使用JsonConfig创建的ObjectMapper，与Spring MVC共用，日期格式、时区等按spring.jackson配置
+ * 启用afterburner字节码加速，读写缓冲区由Jackson按线程回收复用
+ *
+ */
+public class JsonCodec {
+    /**  Spring启动前使用默认配置  */
+    private static volatile ObjectMapper mapper = configure(Jackson2ObjectMapperBuilder.json()).build();
+
+    /**
+     * 在spring.jackson配置的基础上，忽略未知字段、允许空对象，并启用afterburner
+     */
+    public static Jackson2ObjectMapperBuilder configure(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToDisable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .postConfigurer(objectMapper -> objectMapper.registerModule(new AfterburnerModule()));
+    }
+
+    public static void setObjectMapper(ObjectMapper objectMapper) {
+        mapper = objectMapper;
+    }
+
+    public static String toJson(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new RRException("JSON序列化失败", e);
+        }
+    }
+
+    public static byte[] toJsonBytes(Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new RRException("JSON序列化失败", e);
+        }
+    }
+
+    public static <T> T parse(String json, Class<T> clazz) {
+        try {
+            return mapper.readValue(json, clazz);
+        } catch (IOException e) {
+            throw new RRException("JSON解析失败", e);
+        }
+    }
+
+    public static <T> T parse(byte[] data, int offset, int length, Class<T> clazz) {
+        try {
+            return mapper.readValue(data, offset, length, clazz);
+        } catch (IOException e) {
+            throw new RRException("JSON解析失败", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.lrcores.common.utils;
+
+import io.lrcores.common.exception.RRException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * keyset分页游标，内容为上一页最后一条记录的排序值和ID，Base64编码后返回给前端
+ *
+ */
+public class KeysetCursor {
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * 排序值，按ID排序时为null
+     */
+    private final String sortValue;
+    private final String id;
+
+    private KeysetCursor(String sortValue, String id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public static String encode(Object sortValue, Object id) {
+        String value = id.toString();
+        if(sortValue != null){
+            String sort = sortValue instanceof Date ? DateUtils.format((Date)sortValue, DateUtils.DATE_TIME_PATTERN) : sortValue.toString();
+            value = sort + SEPARATOR + value;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RRException("无效的分页游标");
+        }
+
+        int index = value.lastIndexOf(SEPARATOR);
+        if(index < 0){
+            return new KeysetCursor(null, value);
+        }
+        return new KeysetCursor(value.substring(0, index), value.substring(index + 1));
+    }
+
+    public String getSortValue() {
+        return sortValue;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -1,9 +1,12 @@
 package io.lrcores.common.utils;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import io.lrcores.common.mybatis.CountPage;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * 分页工具类
@@ -31,6 +34,14 @@ public class PageUtils implements Serializable {
 	 * 列表数据
 	 */
 	private List<?> list;
+	/**
+	 * 下一页游标，keyset分页时使用，没有下一页时为null
+	 */
+	private String nextCursor;
+	/**
+	 * 总记录数是否为估算值
+	 */
+	private boolean estimated;
 
 	/**
 	 * 分页
@@ -56,6 +67,33 @@ public class PageUtils implements Serializable {
 		this.pageSize = (int)page.getSize();
 		this.currPage = (int)page.getCurrent();
 		this.totalPage = (int)page.getPages();
+		this.estimated = page instanceof CountPage && ((CountPage<?>)page).isEstimated();
+	}
+
+	/**
+	 * keyset分页，page为多查询一条记录的分页结果
+	 * @param page        分页结果
+	 * @param totalCount  总记录数，未查询时为-1
+	 * @param sortGetter  排序值，按ID排序时传null
+	 * @param idGetter    主键
+	 */
+	public static <T> PageUtils keyset(IPage<T> page, long totalCount, Function<T, Object> sortGetter, Function<T, Object> idGetter) {
+		int pageSize = (int)page.getSize() - 1;
+		List<T> records = page.getRecords();
+
+		String nextCursor = null;
+		if(records.size() > pageSize){
+			records = new ArrayList<>(records.subList(0, pageSize));
+			T last = records.get(pageSize - 1);
+			nextCursor = KeysetCursor.encode(sortGetter == null ? null : sortGetter.apply(last), idGetter.apply(last));
+		}
+
+		PageUtils pageUtils = new PageUtils(records, (int)totalCount, pageSize, 0);
+		if(totalCount < 0){
+			pageUtils.totalPage = -1;
+		}
+		pageUtils.nextCursor = nextCursor;
+		return pageUtils;
 	}
 
 	public int getTotalCount() {
@@ -98,4 +136,20 @@ public class PageUtils implements Serializable {
 		this.list = list;
 	}
 
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	public boolean isEstimated() {
+		return estimated;
+	}
+
+	public void setEstimated(boolean estimated) {
+		this.estimated = estimated;
+	}
+
 }
@@ -1,9 +1,7 @@
 package io.lrcores.common.utils;
 
-import org.springframework.util.StringUtils;
-
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.BitSet;
+import java.util.List;
 
 /**
  * @ClassName PhoneUtils
@@ -18,17 +16,46 @@ import java.util.regex.Pattern;
  * 移动 182,183,184,187,188             电信 185,186                            联通 180,181,189
  * 移动 198                             电信                                    联通 199
  *
+ * 逐字符校验，不使用正则，批量导入时使用validateAll
+ *
  * @Date 2020/5/28 14:39
  * @Version 1.0
  */
 public class PhoneUtils {
 
-    /*定义验证规则*/
-    private static final Pattern PHONE_PATTERN = Pattern.compile(
-            "^(13[0-9]\\d{8})|(14[56789]\\d{8})|(14[14]0\\d{7})|(15[012356789]\\d{8})" +
-                    "|(16[6]\\d{8})|(170[012356789]\\d{7})|(17[135678]\\d{8})" +
-                    "|(1740[0-5]\\d{6})|(18[0-9]\\d{8})|(19[89]\\d{8})$"
-    );
+    /*号段规则，下标为第2、3位数字，值为第4位允许的数字(按位)*/
+    private static final short[] SEGMENTS = new short[100];
+    private static final short ANY = 0x3FF;
+
+    static {
+        for (int i = 30; i <= 39; i++) {
+            SEGMENTS[i] = ANY;
+        }
+        for (int i = 45; i <= 49; i++) {
+            SEGMENTS[i] = ANY;
+        }
+        //1410,1440
+        SEGMENTS[41] = 1;
+        SEGMENTS[44] = 1;
+        for (int i = 50; i <= 59; i++) {
+            SEGMENTS[i] = i == 54 ? 0 : ANY;
+        }
+        SEGMENTS[66] = ANY;
+        //170[012356789]
+        SEGMENTS[70] = ANY & ~(1 << 4);
+        SEGMENTS[71] = ANY;
+        SEGMENTS[73] = ANY;
+        //1740[0-5]，第5位另外校验
+        SEGMENTS[74] = 1;
+        for (int i = 75; i <= 78; i++) {
+            SEGMENTS[i] = ANY;
+        }
+        for (int i = 80; i <= 89; i++) {
+            SEGMENTS[i] = ANY;
+        }
+        SEGMENTS[98] = ANY;
+        SEGMENTS[99] = ANY;
+    }
 
 
     /**
@@ -37,12 +64,38 @@ public class PhoneUtils {
      * @param phone
      * @return true/false  true:表示手机号码正确；false：表示手机号码有误
      */
-    public static boolean isValid(String phone) {
-        if (StringUtils.isEmpty(phone)) {
+    public static boolean isValid(CharSequence phone) {
+        if (phone == null || phone.length() != 11 || phone.charAt(0) != '1') {
             return false;
         }
-        Matcher m = PHONE_PATTERN.matcher(phone);
-        return m.matches();
+        for (int i = 1; i < 11; i++) {
+            char c = phone.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+
+        int segment = (phone.charAt(1) - '0') * 10 + (phone.charAt(2) - '0');
+        if ((SEGMENTS[segment] & (1 << (phone.charAt(3) - '0'))) == 0) {
+            return false;
+        }
+        return segment != 74 || phone.charAt(4) <= '5';
+    }
+
+    /**
+     * 批量校验手机号码
+     *
+     * @param phones 一列手机号码
+     * @return 校验失败的下标
+     */
+    public static BitSet validateAll(List<? extends CharSequence> phones) {
+        BitSet failures = new BitSet(phones.size());
+        for (int i = 0; i < phones.size(); i++) {
+            if (!isValid(phones.get(i))) {
+                failures.set(i);
+            }
+        }
+        return failures;
     }
 
 }
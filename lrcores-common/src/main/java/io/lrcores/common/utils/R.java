@@ -1,18 +1,42 @@
 package io.lrcores.common.utils;
 
-import java.util.HashMap;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
  * 返回数据
  *
+ * code、msg、data为固定字段，put的其他数据按顺序存放在数组中，序列化时作为同级字段输出
+ *
  */
-public class R extends HashMap<String, Object> {
+@JsonSerialize(using = R.Serializer.class)
+public class R implements Serializable {
 	private static final long serialVersionUID = 1L;
 
+	private static final String CODE = "code";
+	private static final String MSG = "msg";
+	private static final String DATA = "data";
+	private static final String SUCCESS = "success";
+
+	private int code;
+	private String msg;
+	private Object data;
+	/**  其他数据，key、value交替存放  */
+	private Object[] extra;
+	private int extraSize;
+
 	public R() {
-		put("code", 0);
-		put("msg", "success");
+		this.code = 0;
+		this.msg = SUCCESS;
 	}
 
 	public static R error() {
@@ -25,20 +49,22 @@ public class R extends HashMap<String, Object> {
 
 	public static R error(int code, String msg) {
 		R r = new R();
-		r.put("code", code);
-		r.put("msg", msg);
+		r.code = code;
+		r.msg = msg;
 		return r;
 	}
 
 	public static R ok(String msg) {
 		R r = new R();
-		r.put("msg", msg);
+		r.msg = msg;
 		return r;
 	}
 
 	public static R ok(Map<String, Object> map) {
 		R r = new R();
-		r.putAll(map);
+		for(Map.Entry<String, Object> entry : map.entrySet()){
+			r.put(entry.getKey(), entry.getValue());
+		}
 		return r;
 	}
 
@@ -46,9 +72,104 @@ public class R extends HashMap<String, Object> {
 		return new R();
 	}
 
-	@Override
 	public R put(String key, Object value) {
-		super.put(key, value);
+		switch (key) {
+			case CODE:
+				this.code = ((Number) value).intValue();
+				return this;
+			case MSG:
+				this.msg = value == null ? null : value.toString();
+				return this;
+			case DATA:
+				this.data = value;
+				return this;
+			default:
+				break;
+		}
+
+		for(int i = 0; i < extraSize; i += 2){
+			if(extra[i].equals(key)){
+				extra[i + 1] = value;
+				return this;
+			}
+		}
+		if(extra == null){
+			extra = new Object[4];
+		}else if(extraSize == extra.length){
+			extra = Arrays.copyOf(extra, extraSize * 2);
+		}
+		extra[extraSize++] = key;
+		extra[extraSize++] = value;
 		return this;
 	}
+
+	public Object get(String key) {
+		switch (key) {
+			case CODE:
+				return code;
+			case MSG:
+				return msg;
+			case DATA:
+				return data;
+			default:
+				break;
+		}
+		for(int i = 0; i < extraSize; i += 2){
+			if(extra[i].equals(key)){
+				return extra[i + 1];
+			}
+		}
+		return null;
+	}
+
+	public int getCode() {
+		return code;
+	}
+
+	public String getMsg() {
+		return msg;
+	}
+
+	public Object getData() {
+		return data;
+	}
+
+	/**
+	 * 直接写入输出流，R.ok()输出预先序列化好的内容
+	 */
+	public static class Serializer extends StdSerializer<R> {
+		private static final long serialVersionUID = 1L;
+
+		private static final SerializableString OK_JSON = new SerializedString("{\"code\":0,\"msg\":\"success\"}");
+		private static final SerializableString CODE_NAME = new SerializedString(CODE);
+		private static final SerializableString MSG_NAME = new SerializedString(MSG);
+		private static final SerializableString DATA_NAME = new SerializedString(DATA);
+
+		public Serializer() {
+			super(R.class);
+		}
+
+		@Override
+		public void serialize(R r, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			if(r.code == 0 && r.msg == SUCCESS && r.data == null && r.extraSize == 0){
+				gen.writeRawValue(OK_JSON);
+				return;
+			}
+
+			gen.writeStartObject(r);
+			gen.writeFieldName(CODE_NAME);
+			gen.writeNumber(r.code);
+			gen.writeFieldName(MSG_NAME);
+			gen.writeString(r.msg);
+			if(r.data != null){
+				gen.writeFieldName(DATA_NAME);
+				provider.defaultSerializeValue(r.data, gen);
+			}
+			for(int i = 0; i < r.extraSize; i += 2){
+				gen.writeFieldName((String) r.extra[i]);
+				provider.defaultSerializeValue(r.extra[i + 1], gen);
+			}
+			gen.writeEndObject();
+		}
+	}
 }
@@ -0,0 +1,146 @@
+package io.lrcores.common.utils;
+
+import io.lrcores.common.serializer.RedisSerializers;
+import org.springframework.data.redis.core.RedisOperations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis批量操作，通过RedisUtils.execute在一次pipeline中执行
+ *
+ */
+public class RedisBatch {
+    private final List<Operation> operations = new ArrayList<>();
+
+    public RedisBatch set(String key, Object value, long expire) {
+        operations.add(new Operation(Type.SET, key, value, null, expire));
+        return this;
+    }
+
+    public RedisBatch set(String key, Object value) {
+        return set(key, value, RedisUtils.DEFAULT_EXPIRE);
+    }
+
+    public RedisBatch get(String key, Class<?> clazz) {
+        operations.add(new Operation(Type.GET, key, null, clazz, RedisUtils.NOT_EXPIRE));
+        return this;
+    }
+
+    public RedisBatch get(String key) {
+        return get(key, String.class);
+    }
+
+    public RedisBatch expire(String key, long expire) {
+        operations.add(new Operation(Type.EXPIRE, key, null, null, expire));
+        return this;
+    }
+
+    public RedisBatch delete(String key) {
+        operations.add(new Operation(Type.DELETE, key, null, null, RedisUtils.NOT_EXPIRE));
+        return this;
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    public List<Operation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    void execute(RedisOperations<String, byte[]> ops, RedisSerializers serializers) {
+        for(Operation operation : operations){
+            String key = operation.key;
+            switch (operation.type) {
+                case GET:
+                    ops.opsForValue().get(key);
+                    break;
+                case SET:
+                    byte[] bytes = serializers.serialize(key, operation.value);
+                    if(operation.expire != RedisUtils.NOT_EXPIRE){
+                        ops.opsForValue().set(key, bytes, operation.expire, TimeUnit.SECONDS);
+                    }else{
+                        ops.opsForValue().set(key, bytes);
+                    }
+                    break;
+                case EXPIRE:
+                    ops.expire(key, operation.expire, TimeUnit.SECONDS);
+                    break;
+                case DELETE:
+                    ops.delete(key);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * 解码GET的结果，无法解码的key加入invalidKeys
+     */
+    void decode(List<Object> results, RedisSerializers serializers, List<String> invalidKeys) {
+        for(int i = 0; i < results.size(); i++){
+            Operation operation = operations.get(i);
+            if(operation.type == Type.GET){
+                byte[] bytes = (byte[]) results.get(i);
+                Object value = serializers.deserialize(bytes, operation.clazz);
+                if(bytes != null && value == null){
+                    invalidKeys.add(operation.key);
+                }
+                results.set(i, value);
+            }
+        }
+    }
+
+    public enum Type {
+        GET, SET, EXPIRE, DELETE
+    }
+
+    /**
+     * 单个操作
+     */
+    public static class Operation {
+        private final Type type;
+        private final String key;
+        /**  SET的值  */
+        private final Object value;
+        /**  GET的返回值类型  */
+        private final Class<?> clazz;
+        private final long expire;
+
+        Operation(Type type, String key, Object value, Class<?> clazz, long expire) {
+            this.type = type;
+            this.key = key;
+            this.value = value;
+            this.clazz = clazz;
+            this.expire = expire;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public Class<?> getClazz() {
+            return clazz;
+        }
+
+        public long getExpire() {
+            return expire;
+        }
+    }
+}
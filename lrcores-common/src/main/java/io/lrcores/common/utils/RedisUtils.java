@@ -1,11 +1,18 @@
 package io.lrcores.common.utils;
 
-import com.alibaba.fastjson.JSON;
+import io.lrcores.common.exception.RRException;
+import io.lrcores.common.serializer.RedisSerializers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.*;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
+import java.io.IOException;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -16,8 +23,10 @@ import java.util.concurrent.TimeUnit;
 public class RedisUtils {
     @Autowired
     private RedisTemplate redisTemplate;
-    @Resource(name="redisTemplate")
-    private ValueOperations<String, String> valueOperations;
+    @Resource(name="redisBytesTemplate")
+    private RedisTemplate<String, byte[]> bytesTemplate;
+    @Resource(name="redisBytesTemplate")
+    private ValueOperations<String, byte[]> valueOperations;
     @Resource(name="redisTemplate")
     private HashOperations<String, String, Object> hashOperations;
     @Resource(name="redisTemplate")
@@ -26,15 +35,25 @@ public class RedisUtils {
     private SetOperations<String, Object> setOperations;
     @Resource(name="redisTemplate")
     private ZSetOperations<String, Object> zSetOperations;
+    @Autowired
+    private RedisSerializers serializers;
     /**  默认过期时长，单位：秒 */
     public final static long DEFAULT_EXPIRE = 60 * 60 * 24;
     /**  不设置过期时长 */
     public final static long NOT_EXPIRE = -1;
+    /**  获取值并刷新过期时长，GET和EXPIRE在一次请求中原子执行 */
+    private final static RedisScript<byte[]> GET_EXPIRE_SCRIPT = new DefaultRedisScript<>(
+            "local value = redis.call('GET', KEYS[1]) " +
+            "if value then redis.call('EXPIRE', KEYS[1], ARGV[1]) end " +
+            "return value", byte[].class);
 
     public void set(String key, Object value, long expire){
-        valueOperations.set(key, toJson(value));
+        byte[] bytes = serializers.serialize(key, value);
         if(expire != NOT_EXPIRE){
-            redisTemplate.expire(key, expire, TimeUnit.SECONDS);
+            //SET key value EX expire
+            valueOperations.set(key, bytes, expire, TimeUnit.SECONDS);
+        }else{
+            valueOperations.set(key, bytes);
         }
     }
 
@@ -43,11 +62,19 @@ public class RedisUtils {
     }
 
     public <T> T get(String key, Class<T> clazz, long expire) {
-        String value = valueOperations.get(key);
-        if(expire != NOT_EXPIRE){
-            redisTemplate.expire(key, expire, TimeUnit.SECONDS);
+        byte[] bytes;
+        if(expire == NOT_EXPIRE){
+            bytes = valueOperations.get(key);
+        }else{
+            bytes = bytesTemplate.execute(GET_EXPIRE_SCRIPT, new StringRedisSerializer(),
+                    RedisSerializer.byteArray(), Collections.singletonList(key), String.valueOf(expire));
         }
-        return value == null ? null : fromJson(value, clazz);
+        T value = serializers.deserialize(bytes, clazz);
+        if(bytes != null && value == null){
+            //无法解码的数据删除，下次重新加载
+            delete(key);
+        }
+        return value;
     }
 
     public <T> T get(String key, Class<T> clazz) {
@@ -55,36 +82,148 @@ public class RedisUtils {
     }
 
     public String get(String key, long expire) {
-        String value = valueOperations.get(key);
-        if(expire != NOT_EXPIRE){
-            redisTemplate.expire(key, expire, TimeUnit.SECONDS);
-        }
-        return value;
+        return get(key, String.class, expire);
     }
 
     public String get(String key) {
         return get(key, NOT_EXPIRE);
     }
 
-    public void delete(String key) {
-        redisTemplate.delete(key);
+    /**
+     * 批量获取并刷新过期时长，通过pipeline一次请求完成，不存在的key对应null
+     */
+    public <T> List<T> multiGet(Collection<String> keys, Class<T> clazz, long expire) {
+        if(keys.isEmpty()){
+            return new ArrayList<>();
+        }
+
+        List<T> list = new ArrayList<>(keys.size());
+        if(expire == NOT_EXPIRE){
+            List<byte[]> values = valueOperations.multiGet(keys);
+            List<String> invalidKeys = new ArrayList<>();
+            Iterator<String> iterator = keys.iterator();
+            for(byte[] value : values){
+                String key = iterator.next();
+                T result = serializers.deserialize(value, clazz);
+                if(value != null && result == null){
+                    invalidKeys.add(key);
+                }
+                list.add(result);
+            }
+            delete(invalidKeys);
+            return list;
+        }
+
+        RedisBatch batch = new RedisBatch();
+        for(String key : keys){
+            batch.get(key, clazz).expire(key, expire);
+        }
+        List<Object> results = execute(batch);
+
+        //结果依次为GET、EXPIRE的返回值，只取GET
+        for(int i = 0; i < results.size(); i += 2){
+            list.add(clazz.cast(results.get(i)));
+        }
+        return list;
+    }
+
+    public <T> List<T> multiGet(Collection<String> keys, Class<T> clazz) {
+        return multiGet(keys, clazz, NOT_EXPIRE);
+    }
+
+    public List<String> multiGet(Collection<String> keys, long expire) {
+        return multiGet(keys, String.class, expire);
+    }
+
+    public List<String> multiGet(Collection<String> keys) {
+        return multiGet(keys, String.class, NOT_EXPIRE);
     }
 
     /**
-     * Object转成JSON数据
+     * 批量设置，通过pipeline一次请求完成
      */
-    private String toJson(Object object){
-        if(object instanceof Integer || object instanceof Long || object instanceof Float ||
-                object instanceof Double || object instanceof Boolean || object instanceof String){
-            return String.valueOf(object);
+    public void multiSet(Map<String, ?> map, long expire) {
+        if(map.isEmpty()){
+            return ;
+        }
+        if(expire == NOT_EXPIRE){
+            Map<String, byte[]> values = new HashMap<>(map.size() * 4 / 3 + 1);
+            for(Map.Entry<String, ?> entry : map.entrySet()){
+                values.put(entry.getKey(), serializers.serialize(entry.getKey(), entry.getValue()));
+            }
+            valueOperations.multiSet(values);
+            return ;
+        }
+
+        RedisBatch batch = new RedisBatch();
+        for(Map.Entry<String, ?> entry : map.entrySet()){
+            batch.set(entry.getKey(), entry.getValue(), expire);
+        }
+        execute(batch);
+    }
+
+    public void multiSet(Map<String, ?> map) {
+        multiSet(map, DEFAULT_EXPIRE);
+    }
+
+    /**
+     * 批量执行，所有操作通过pipeline一次请求完成
+     * @return  按添加顺序返回每个操作的结果，GET返回解码后的值
+     */
+    public List<Object> execute(RedisBatch batch) {
+        if(batch.isEmpty()){
+            return new ArrayList<>();
+        }
+        List<Object> results = bytesTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                batch.execute(operations, serializers);
+                return null;
+            }
+        });
+        List<String> invalidKeys = new ArrayList<>();
+        batch.decode(results, serializers, invalidKeys);
+        //无法解码的数据删除，下次重新加载
+        delete(invalidKeys);
+        return results;
+    }
+
+    public void delete(String key) {
+        redisTemplate.delete(key);
+    }
+
+    public void delete(Collection<String> keys) {
+        if(keys.isEmpty()){
+            return ;
         }
-        return JSON.toJSONString(object);
+        redisTemplate.delete(keys);
     }
 
     /**
-     * JSON数据，转成Object
+     * 删除指定前缀的所有key，使用SCAN分批查找，不阻塞Redis
+     * @return  删除的key数量
      */
-    private <T> T fromJson(String json, Class<T> clazz){
-        return JSON.parseObject(json, clazz);
+    public long deleteByPrefix(String prefix) {
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(1000).build();
+        return bytesTemplate.execute((RedisCallback<Long>) connection -> {
+            long count = 0;
+            List<byte[]> keys = new ArrayList<>();
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while(cursor.hasNext()){
+                    keys.add(cursor.next());
+                    if(keys.size() >= 1000){
+                        count += connection.del(keys.toArray(new byte[0][]));
+                        keys.clear();
+                    }
+                }
+            } catch (IOException e) {
+                throw new RRException("Redis SCAN异常", e);
+            }
+            if(!keys.isEmpty()){
+                count += connection.del(keys.toArray(new byte[0][]));
+            }
+            return count;
+        });
     }
 }
@@ -2,6 +2,8 @@ package io.lrcores.commons.dynamic.datasource.aspect;
 
 import io.lrcores.commons.dynamic.datasource.annotation.DataSource;
 import io.lrcores.commons.dynamic.datasource.config.DynamicContextHolder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -9,11 +11,16 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /*** 多数据源，切面处理类**/
 @Aspect
@@ -22,32 +29,71 @@ import java.lang.reflect.Method;
 public class DataSourceAspect {
     protected Logger logger = LoggerFactory.getLogger(getClass());
 
+    /*** 没有注解时的缓存值**/
+    private static final Route NONE = new Route(null, null);
+
+    /*** 解析结果缓存，key为(方法, 目标类)**/
+    private final Map<MethodClassKey, Route> routeCache = new ConcurrentHashMap<>();
+
     @Pointcut("@annotation(io.lrcores.commons.dynamic.datasource.annotation.DataSource) " + "|| @within(io.lrcores.commons.dynamic.datasource.annotation.DataSource)")
     public void dataSourcePointCut() {
     }
 
     @Around("dataSourcePointCut()")
     public Object around(ProceedingJoinPoint point) throws Throwable {
-        MethodSignature signature = (MethodSignature) point.getSignature();
-        Class targetClass = point.getTarget().getClass();
-        Method method = signature.getMethod();
-        DataSource targetDataSource = (DataSource) targetClass.getAnnotation(DataSource.class);
-        DataSource methodDataSource = method.getAnnotation(DataSource.class);
-        if (targetDataSource != null || methodDataSource != null) {
-            String value;
-            if (methodDataSource != null) {
-                value = methodDataSource.value();
-            } else {
-                value = targetDataSource.value();
-            }
-            DynamicContextHolder.push(value);
-            logger.debug("set datasource is {}", value);
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        Class<?> targetClass = point.getTarget().getClass();
+        Route route = routeCache.get(new MethodClassKey(method, targetClass));
+        if (route == null) {
+            route = routeCache.computeIfAbsent(new MethodClassKey(method, targetClass), k -> resolve(method, targetClass));
+        }
+
+        if (route == NONE) {
+            return point.proceed();
+        }
+
+        DynamicContextHolder.push(route.value);
+        route.counter.increment();
+        if (logger.isDebugEnabled()) {
+            logger.debug("set datasource is {}", route.value);
         }
         try {
             return point.proceed();
         } finally {
             DynamicContextHolder.poll();
-            logger.debug("clean datasource");
+            if (logger.isDebugEnabled()) {
+                logger.debug("clean datasource");
+            }
+        }
+    }
+
+    /**
+     * 解析数据源，方法上的注解优先，其次是类上的注解，都会查找父类和接口
+     */
+    private Route resolve(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        DataSource dataSource = AnnotatedElementUtils.findMergedAnnotation(specificMethod, DataSource.class);
+        if (dataSource == null && specificMethod != method) {
+            dataSource = AnnotatedElementUtils.findMergedAnnotation(method, DataSource.class);
+        }
+        if (dataSource == null) {
+            dataSource = AnnotatedElementUtils.findMergedAnnotation(targetClass, DataSource.class);
+        }
+        if (dataSource == null) {
+            return NONE;
+        }
+
+        String value = dataSource.value();
+        return new Route(value, Metrics.counter("datasource.routing", "datasource", value));
+    }
+
+    private static final class Route {
+        private final String value;
+        private final Counter counter;
+
+        Route(String value, Counter counter) {
+            this.value = value;
+            this.counter = counter;
         }
     }
 }
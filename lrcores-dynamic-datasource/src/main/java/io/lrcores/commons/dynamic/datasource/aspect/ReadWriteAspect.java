@@ -0,0 +1,62 @@
+package io.lrcores.commons.dynamic.datasource.aspect;
+
+import io.lrcores.commons.dynamic.datasource.config.ReadWriteContextHolder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读写分离，切面处理类
+ * 事务开始时就绑定了连接，此时readOnly标记还未设置，所以在事务切面之前根据@Transactional(readOnly)确定读写模式
+ **/
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "dynamic.read-write", name = "enabled", havingValue = "true")
+public class ReadWriteAspect {
+    private final Map<MethodClassKey, Boolean> readOnlyCache = new ConcurrentHashMap<>();
+
+    @Pointcut("@annotation(org.springframework.transaction.annotation.Transactional) " + "|| @within(org.springframework.transaction.annotation.Transactional)")
+    public void transactionalPointCut() {
+    }
+
+    @Around("transactionalPointCut()")
+    public Object around(ProceedingJoinPoint point) throws Throwable {
+        ReadWriteContextHolder.Mode previous = ReadWriteContextHolder.get();
+        //已经是写模式，嵌套的只读事务也使用主库
+        if (previous != ReadWriteContextHolder.Mode.WRITE) {
+            Method method = ((MethodSignature) point.getSignature()).getMethod();
+            Class<?> targetClass = point.getTarget().getClass();
+            boolean readOnly = readOnlyCache.computeIfAbsent(new MethodClassKey(method, targetClass), k -> isReadOnly(method, targetClass));
+            ReadWriteContextHolder.set(readOnly ? ReadWriteContextHolder.Mode.READ : ReadWriteContextHolder.Mode.WRITE);
+        }
+        try {
+            return point.proceed();
+        } finally {
+            ReadWriteContextHolder.set(previous);
+        }
+    }
+
+    private boolean isReadOnly(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(specificMethod, Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(targetClass, Transactional.class);
+        }
+        return transactional != null && transactional.readOnly();
+    }
+}
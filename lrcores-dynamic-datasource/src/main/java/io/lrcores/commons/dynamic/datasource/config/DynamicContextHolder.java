@@ -1,19 +1,13 @@
 package io.lrcores.commons.dynamic.datasource.config;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 /**
  * 多数据源上下文
  */
 public class DynamicContextHolder {
-    @SuppressWarnings("unchecked")
-    private static final ThreadLocal<Deque<String>> CONTEXT_HOLDER = new ThreadLocal() {
-        @Override
-        protected Object initialValue() {
-            return new ArrayDeque();
-        }
-    };
+    /**
+     * 每个线程复用一个数组栈，切换数据源时不再创建、销毁对象
+     */
+    private static final ThreadLocal<Stack> CONTEXT_HOLDER = ThreadLocal.withInitial(Stack::new);
 
     /**
      * 获得当前线程数据源
@@ -37,10 +31,30 @@ public class DynamicContextHolder {
      * 清空当前线程数据源
      */
     public static void poll() {
-        Deque<String> deque = CONTEXT_HOLDER.get();
-        deque.poll();
-        if (deque.isEmpty()) {
-            CONTEXT_HOLDER.remove();
+        CONTEXT_HOLDER.get().poll();
+    }
+
+    private static final class Stack {
+        private String[] items = new String[4];
+        private int size;
+
+        String peek() {
+            return size == 0 ? null : items[size - 1];
+        }
+
+        void push(String item) {
+            if (size == items.length) {
+                String[] grown = new String[size << 1];
+                System.arraycopy(items, 0, grown, 0, size);
+                items = grown;
+            }
+            items[size++] = item;
+        }
+
+        void poll() {
+            if (size > 0) {
+                items[--size] = null;
+            }
         }
     }
 
@@ -1,17 +1,182 @@
-
 package io.lrcores.commons.dynamic.datasource.config;
 
+import io.lrcores.commons.dynamic.datasource.properties.DataSourceProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 多数据源
  *
  */
 public class DynamicDataSource extends AbstractRoutingDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(DynamicDataSource.class);
+
+    /*** 默认数据源*/
+    private DataSource defaultDataSource;
+    /*** 动态数据源，修改时整体替换，读取时不加锁*/
+    private volatile Map<String, LazyDruidDataSource> dataSources = Collections.emptyMap();
+    /*** 读写分离，未开启时为null*/
+    private ReplicaRouter replicaRouter;
+    private ScheduledExecutorService idleChecker;
 
     @Override
     protected Object determineCurrentLookupKey() {
         return DynamicContextHolder.peek();
     }
 
+    @Override
+    protected DataSource determineTargetDataSource() {
+        String key = DynamicContextHolder.peek();
+        if (key == null) {
+            return defaultDataSource;
+        }
+        DataSource dataSource = dataSources.get(key);
+        return dataSource != null ? dataSource : defaultDataSource;
+    }
+
+    @Override
+    public void setDefaultTargetDataSource(Object defaultTargetDataSource) {
+        super.setDefaultTargetDataSource(defaultTargetDataSource);
+        this.defaultDataSource = (DataSource) defaultTargetDataSource;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        //未指定数据源的读操作，路由到从库，从库不可用时使用主库
+        if (replicaRouter != null && ReadWriteContextHolder.isRead() && DynamicContextHolder.peek() == null) {
+            String replica = replicaRouter.select();
+            if (replica != null) {
+                try {
+                    return replicaRouter.getConnection(replica);
+                } catch (SQLException e) {
+                    replicaRouter.markDown(replica, e);
+                }
+            }
+        }
+        return super.getConnection();
+    }
+
+    /**
+     * 注册数据源，已存在时替换并关闭原数据源
+     *
+     * @param name       数据源名称
+     * @param properties 数据源属性
+     * @param lazy       是否在第一次使用时才创建连接池
+     */
+    public LazyDruidDataSource register(String name, DataSourceProperties properties, boolean lazy) throws SQLException {
+        if (replicaRouter != null && replicaRouter.isReplica(name)) {
+            throw new IllegalStateException("datasource " + name + " is a replica, can not replace");
+        }
+        LazyDruidDataSource dataSource = new LazyDruidDataSource(name, properties);
+        if (!lazy) {
+            dataSource.getPool();
+        }
+
+        LazyDruidDataSource old;
+        synchronized (this) {
+            Map<String, LazyDruidDataSource> map = new HashMap<>(dataSources);
+            old = map.put(name, dataSource);
+            dataSources = Collections.unmodifiableMap(map);
+        }
+        if (old != null) {
+            old.close();
+        }
+        logger.info("datasource {} registered", name);
+        return dataSource;
+    }
+
+    /**
+     * 注销数据源，并关闭连接池，读写分离的从库不能注销
+     */
+    public boolean unregister(String name) {
+        if (replicaRouter != null && replicaRouter.isReplica(name)) {
+            throw new IllegalStateException("datasource " + name + " is a replica, can not unregister");
+        }
+
+        LazyDruidDataSource old;
+        synchronized (this) {
+            if (!dataSources.containsKey(name)) {
+                return false;
+            }
+            Map<String, LazyDruidDataSource> map = new HashMap<>(dataSources);
+            old = map.remove(name);
+            dataSources = Collections.unmodifiableMap(map);
+        }
+        old.close();
+        logger.info("datasource {} unregistered", name);
+        return true;
+    }
+
+    public LazyDruidDataSource getDataSource(String name) {
+        return dataSources.get(name);
+    }
+
+    public Map<String, LazyDruidDataSource> getDataSources() {
+        return dataSources;
+    }
+
+    /**
+     * 定时关闭空闲的连接池
+     *
+     * @param idleTimeout 空闲超时时间(毫秒)，小于等于0时不关闭
+     */
+    public synchronized void startIdleChecker(long idleTimeout) {
+        if (idleTimeout <= 0 || idleChecker != null) {
+            return;
+        }
+        idleChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "datasource-idle-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1000L, Math.min(idleTimeout / 2, 60 * 1000L));
+        idleChecker.scheduleWithFixedDelay(() -> {
+            for (LazyDruidDataSource dataSource : dataSources.values()) {
+                try {
+                    dataSource.closeIfIdle(idleTimeout);
+                } catch (Exception e) {
+                    logger.warn("close idle datasource {} error", dataSource.getName(), e);
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void setReplicaRouter(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    public ReplicaRouter getReplicaRouter() {
+        return replicaRouter;
+    }
+
+    public synchronized void close() {
+        if (idleChecker != null) {
+            idleChecker.shutdownNow();
+        }
+        if (replicaRouter != null) {
+            replicaRouter.close();
+        }
+        for (LazyDruidDataSource dataSource : dataSources.values()) {
+            dataSource.close();
+        }
+        if (defaultDataSource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) defaultDataSource).close();
+            } catch (Exception e) {
+                logger.warn("close default datasource error", e);
+            }
+        }
+    }
+
 }
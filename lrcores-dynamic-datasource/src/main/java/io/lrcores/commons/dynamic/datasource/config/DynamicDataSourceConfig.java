@@ -3,13 +3,17 @@ package io.lrcores.commons.dynamic.datasource.config;
 import com.alibaba.druid.pool.DruidDataSource;
 import io.lrcores.commons.dynamic.datasource.properties.DataSourceProperties;
 import io.lrcores.commons.dynamic.datasource.properties.DynamicDataSourceProperties;
+import io.lrcores.commons.dynamic.datasource.properties.ReadWriteProperties;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -29,26 +33,51 @@ public class DynamicDataSourceConfig {
     }
 
     @Bean
-    public DynamicDataSource dynamicDataSource(DataSourceProperties dataSourceProperties) {
+    public DynamicDataSource dynamicDataSource(DataSourceProperties dataSourceProperties) throws SQLException {
         DynamicDataSource dynamicDataSource = new DynamicDataSource();
-        dynamicDataSource.setTargetDataSources(getDynamicDataSource());
+        dynamicDataSource.setTargetDataSources(new HashMap<>());
 
         //默认数据源
         DruidDataSource defaultDataSource = DynamicDataSourceFactory.buildDruidDataSource(dataSourceProperties);
         dynamicDataSource.setDefaultTargetDataSource(defaultDataSource);
 
+        //动态数据源，默认第一次使用时才创建连接池
+        for (Map.Entry<String, DataSourceProperties> entry : properties.getDatasource().entrySet()) {
+            dynamicDataSource.register(entry.getKey(), entry.getValue(), properties.isLazy());
+        }
+        dynamicDataSource.startIdleChecker(properties.getIdleTimeout());
+
+        //读写分离
+        ReadWriteProperties readWrite = properties.getReadWrite();
+        if (readWrite.isEnabled()) {
+            dynamicDataSource.setReplicaRouter(getReplicaRouter(readWrite, dynamicDataSource));
+        }
+
         return dynamicDataSource;
     }
 
-    private Map<Object, Object> getDynamicDataSource(){
-        Map<String, DataSourceProperties> dataSourcePropertiesMap = properties.getDatasource();
-        Map<Object, Object> targetDataSources = new HashMap<>(dataSourcePropertiesMap.size());
-        dataSourcePropertiesMap.forEach((k, v) -> {
-            DruidDataSource druidDataSource = DynamicDataSourceFactory.buildDruidDataSource(v);
-            targetDataSources.put(k, druidDataSource);
-        });
+    /**
+     * 未在事务中的查询，路由到从库
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "dynamic.read-write", name = "enabled", havingValue = "true")
+    public ReadWriteInterceptor readWriteInterceptor() {
+        return new ReadWriteInterceptor();
+    }
+
+    private ReplicaRouter getReplicaRouter(ReadWriteProperties readWrite, DynamicDataSource dynamicDataSource) {
+        Map<String, LazyDruidDataSource> replicas = new LinkedHashMap<>();
+        Map<String, Integer> weights = new HashMap<>();
+        for (String name : readWrite.getReplicas()) {
+            LazyDruidDataSource dataSource = dynamicDataSource.getDataSource(name);
+            if (dataSource == null) {
+                throw new IllegalArgumentException("replica datasource not found: " + name);
+            }
+            replicas.put(name, dataSource);
+            weights.put(name, properties.getDatasource().get(name).getWeight());
+        }
 
-        return targetDataSources;
+        return new ReplicaRouter(replicas, weights, readWrite);
     }
 
 }
@@ -7,7 +7,10 @@ import java.sql.SQLException;
 
 /*** DruidDataSource**/
 public class DynamicDataSourceFactory {
-    public static DruidDataSource buildDruidDataSource(DataSourceProperties properties) {
+    /**
+     * 创建并初始化连接池，初始化失败时关闭连接池并抛出异常
+     */
+    public static DruidDataSource buildDruidDataSource(DataSourceProperties properties) throws SQLException {
         DruidDataSource druidDataSource = new DruidDataSource();
         druidDataSource.setDriverClassName(properties.getDriverClassName());
         druidDataSource.setUrl(properties.getUrl());
@@ -24,6 +27,7 @@ public class DynamicDataSourceFactory {
         druidDataSource.setValidationQueryTimeout(properties.getValidationQueryTimeout());
         druidDataSource.setTestOnBorrow(properties.isTestOnBorrow());
         druidDataSource.setTestOnReturn(properties.isTestOnReturn());
+        druidDataSource.setTestWhileIdle(properties.isTestWhileIdle());
         druidDataSource.setPoolPreparedStatements(properties.isPoolPreparedStatements());
         druidDataSource.setMaxOpenPreparedStatements(properties.getMaxOpenPreparedStatements());
         druidDataSource.setSharePreparedStatements(properties.isSharePreparedStatements());
@@ -31,7 +35,8 @@ public class DynamicDataSourceFactory {
             druidDataSource.setFilters(properties.getFilters());
             druidDataSource.init();
         } catch (SQLException e) {
-            e.printStackTrace();
+            druidDataSource.close();
+            throw e;
         }
         return druidDataSource;
     }
@@ -0,0 +1,118 @@
+package io.lrcores.commons.dynamic.datasource.config;
+
+import com.alibaba.druid.pool.DataSourceClosedException;
+import com.alibaba.druid.pool.DruidDataSource;
+import io.lrcores.commons.dynamic.datasource.properties.DataSourceProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 按需创建的Druid连接池，第一次获取连接时初始化，空闲超时后关闭，再次使用时重新创建
+ */
+public class LazyDruidDataSource extends AbstractDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(LazyDruidDataSource.class);
+
+    private final String name;
+    private final DataSourceProperties properties;
+    private volatile DruidDataSource pool;
+    private volatile long lastAccessTime = System.currentTimeMillis();
+    /*** 注销后不再创建连接池*/
+    private volatile boolean closed;
+
+    public LazyDruidDataSource(String name, DataSourceProperties properties) {
+        this.name = name;
+        this.properties = properties;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(-1);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getPool().getConnection(username, password);
+    }
+
+    /**
+     * 获取连接
+     *
+     * @param maxWait 最长等待时间(毫秒)，小于0时使用连接池配置
+     */
+    public Connection getConnection(long maxWait) throws SQLException {
+        for (;;) {
+            DruidDataSource druidDataSource = getPool();
+            lastAccessTime = System.currentTimeMillis();
+            try {
+                return maxWait < 0 ? druidDataSource.getConnection() : druidDataSource.getConnection(maxWait);
+            } catch (DataSourceClosedException e) {
+                //连接池刚好因空闲被关闭，重新创建
+                if (closed) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 初始化连接池
+     */
+    public DruidDataSource getPool() throws SQLException {
+        DruidDataSource druidDataSource = pool;
+        if (druidDataSource != null) {
+            return druidDataSource;
+        }
+
+        synchronized (this) {
+            if (closed) {
+                throw new DataSourceClosedException("datasource " + name + " is unregistered");
+            }
+            if (pool == null) {
+                pool = DynamicDataSourceFactory.buildDruidDataSource(properties);
+                logger.info("datasource {} initialized", name);
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * 没有活跃连接，并且空闲超过idleTimeout时，关闭连接池
+     */
+    public synchronized boolean closeIfIdle(long idleTimeout) {
+        DruidDataSource druidDataSource = pool;
+        if (druidDataSource == null || druidDataSource.getActiveCount() > 0
+                || System.currentTimeMillis() - lastAccessTime < idleTimeout) {
+            return false;
+        }
+
+        pool = null;
+        druidDataSource.close();
+        logger.info("datasource {} closed after idle {}ms", name, idleTimeout);
+        return true;
+    }
+
+    public int getActiveCount() {
+        DruidDataSource druidDataSource = pool;
+        return druidDataSource == null ? 0 : druidDataSource.getActiveCount();
+    }
+
+    public boolean isInitialized() {
+        return pool != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized void close() {
+        closed = true;
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.lrcores.commons.dynamic.datasource.config;
+
+/**
+ * 读写分离上下文，READ时路由到从库
+ */
+public class ReadWriteContextHolder {
+    public enum Mode {
+        /**  读，路由到从库  */
+        READ,
+        /**  写，使用主库  */
+        WRITE
+    }
+
+    private static final ThreadLocal<Mode> CONTEXT_HOLDER = new ThreadLocal<>();
+
+    public static Mode get() {
+        return CONTEXT_HOLDER.get();
+    }
+
+    /**
+     * 设置当前线程读写模式，null时清除
+     */
+    public static void set(Mode mode) {
+        if (mode == null) {
+            CONTEXT_HOLDER.remove();
+        } else {
+            CONTEXT_HOLDER.set(mode);
+        }
+    }
+
+    public static boolean isRead() {
+        return CONTEXT_HOLDER.get() == Mode.READ;
+    }
+}
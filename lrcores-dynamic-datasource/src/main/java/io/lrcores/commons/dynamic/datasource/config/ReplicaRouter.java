@@ -0,0 +1,146 @@
+package io.lrcores.commons.dynamic.datasource.config;
+
+import io.lrcores.commons.dynamic.datasource.properties.ReadWriteProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 从库选择，支持加权轮询、最少活跃连接；获取连接失败的从库被剔除，定时探测恢复
+ */
+public class ReplicaRouter {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    private final Map<String, LazyDruidDataSource> replicas;
+    private final Map<String, Integer> weights;
+    private final boolean leastActive;
+    private final long maxWait;
+
+    private final Set<String> downReplicas = ConcurrentHashMap.newKeySet();
+    /*** 可用从库按权重展开，轮询使用*/
+    private volatile String[] slots = new String[0];
+    private final AtomicInteger counter = new AtomicInteger();
+    private final ScheduledExecutorService prober;
+
+    public ReplicaRouter(Map<String, LazyDruidDataSource> replicas, Map<String, Integer> weights, ReadWriteProperties properties) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.weights = weights;
+        this.leastActive = "least-active".equals(properties.getLoadBalance());
+        this.maxWait = properties.getMaxWait();
+        rebuild();
+
+        this.prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-prober");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getProbeInterval();
+        this.prober.scheduleWithFixedDelay(this::probe, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 选择从库，没有可用从库时返回null，使用主库
+     */
+    public String select() {
+        String[] slots = this.slots;
+        if (slots.length == 0) {
+            return null;
+        }
+        if (!leastActive) {
+            return slots[(counter.getAndIncrement() & Integer.MAX_VALUE) % slots.length];
+        }
+
+        //活跃连接数 / 权重 最小的从库
+        String selected = null;
+        double min = Double.MAX_VALUE;
+        for (Map.Entry<String, LazyDruidDataSource> entry : replicas.entrySet()) {
+            if (downReplicas.contains(entry.getKey())) {
+                continue;
+            }
+            int active = entry.getValue().getActiveCount();
+            double load = (double) active / weights.getOrDefault(entry.getKey(), 1);
+            if (load < min) {
+                min = load;
+                selected = entry.getKey();
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 从库获取连接，最多等待maxWait
+     */
+    public Connection getConnection(String name) throws SQLException {
+        return replicas.get(name).getConnection(maxWait);
+    }
+
+    public boolean isReplica(String name) {
+        return replicas.containsKey(name);
+    }
+
+    /**
+     * 剔除从库
+     */
+    public void markDown(String name, Exception e) {
+        if (downReplicas.add(name)) {
+            logger.warn("replica {} is down, route to primary", name, e);
+            rebuild();
+        }
+    }
+
+    private void markUp(String name) {
+        if (downReplicas.remove(name)) {
+            logger.info("replica {} is up", name);
+            rebuild();
+        }
+    }
+
+    /**
+     * 探测剔除的从库
+     */
+    private void probe() {
+        for (String name : downReplicas) {
+            try (Connection connection = getConnection(name)) {
+                if (connection.isValid((int) Math.max(1, maxWait / 1000))) {
+                    markUp(name);
+                }
+            } catch (Exception e) {
+                logger.debug("replica {} probe failed", name, e);
+            }
+        }
+    }
+
+    private synchronized void rebuild() {
+        int maxWeight = 0;
+        for (String name : replicas.keySet()) {
+            maxWeight = Math.max(maxWeight, weights.getOrDefault(name, 1));
+        }
+
+        //按轮次展开，同一从库的槽位交错排列，避免连续命中同一从库
+        List<String> list = new ArrayList<>();
+        for (int round = 0; round < maxWeight; round++) {
+            for (String name : replicas.keySet()) {
+                if (!downReplicas.contains(name) && weights.getOrDefault(name, 1) > round) {
+                    list.add(name);
+                }
+            }
+        }
+        slots = list.toArray(new String[0]);
+    }
+
+    public Set<String> getDownReplicas() {
+        return Collections.unmodifiableSet(downReplicas);
+    }
+
+    public void close() {
+        prober.shutdownNow();
+    }
+}
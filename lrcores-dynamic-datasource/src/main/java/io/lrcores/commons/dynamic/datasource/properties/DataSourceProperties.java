@@ -23,6 +23,8 @@ public class DataSourceProperties {
     private int maxOpenPreparedStatements = -1;
     private boolean sharePreparedStatements = false;
     private String filters = "stat,wall";
+    /*** 读写分离时，从库的权重*/
+    private int weight = 1;
 
     public String getDriverClassName() {
         return driverClassName;
@@ -183,4 +185,12 @@ public class DataSourceProperties {
     public void setFilters(String filters) {
         this.filters = filters;
     }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
 }
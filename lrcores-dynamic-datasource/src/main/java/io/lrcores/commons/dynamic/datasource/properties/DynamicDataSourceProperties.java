@@ -9,6 +9,11 @@ import java.util.Map;
 @ConfigurationProperties(prefix = "dynamic")
 public class DynamicDataSourceProperties {
     private Map<String, DataSourceProperties> datasource = new LinkedHashMap<>();
+    private ReadWriteProperties readWrite = new ReadWriteProperties();
+    /*** 是否在第一次使用时才创建连接池*/
+    private boolean lazy = true;
+    /*** 连接池空闲超时时间(毫秒)，超时后关闭连接池，再次使用时重新创建，小于等于0时不关闭*/
+    private long idleTimeout = 30 * 60 * 1000L;
 
     public Map<String, DataSourceProperties> getDatasource() {
         return datasource;
@@ -17,4 +22,28 @@ public class DynamicDataSourceProperties {
     public void setDatasource(Map<String, DataSourceProperties> datasource) {
         this.datasource = datasource;
     }
+
+    public ReadWriteProperties getReadWrite() {
+        return readWrite;
+    }
+
+    public void setReadWrite(ReadWriteProperties readWrite) {
+        this.readWrite = readWrite;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
 }
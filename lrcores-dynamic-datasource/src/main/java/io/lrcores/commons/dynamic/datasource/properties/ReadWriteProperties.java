@@ -0,0 +1,58 @@
+package io.lrcores.commons.dynamic.datasource.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*** 读写分离属性**/
+public class ReadWriteProperties {
+    /*** 是否开启读写分离*/
+    private boolean enabled = false;
+    /*** 从库名称，对应dynamic.datasource中的数据源*/
+    private List<String> replicas = new ArrayList<>();
+    /*** 负载均衡  round-robin：加权轮询  least-active：最少活跃连接*/
+    private String loadBalance = "round-robin";
+    /*** 从库获取连接的最长等待时间(毫秒)，超时后剔除该从库，使用主库*/
+    private long maxWait = 3000L;
+    /*** 剔除的从库探测间隔(毫秒)，连接成功后恢复*/
+    private long probeInterval = 5000L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<String> replicas) {
+        this.replicas = replicas;
+    }
+
+    public String getLoadBalance() {
+        return loadBalance;
+    }
+
+    public void setLoadBalance(String loadBalance) {
+        this.loadBalance = loadBalance;
+    }
+
+    public long getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(long maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public long getProbeInterval() {
+        return probeInterval;
+    }
+
+    public void setProbeInterval(long probeInterval) {
+        this.probeInterval = probeInterval;
+    }
+}
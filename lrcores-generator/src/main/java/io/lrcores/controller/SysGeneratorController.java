@@ -4,7 +4,6 @@ import io.lrcores.service.SysGeneratorService;
 import io.lrcores.utils.PageUtils;
 import io.lrcores.utils.Query;
 import io.lrcores.utils.R;
-import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -37,17 +36,16 @@ public class SysGeneratorController {
 	}
 
 	/**
-	 * 生成代码
+	 * 生成代码，incremental=true时只生成有变化的表和文件，report=true时zip中包含生成报告
 	 */
 	@RequestMapping("/code")
-	public void code(String tables, HttpServletResponse response) throws IOException{
-		byte[] data = sysGeneratorService.generatorCode(tables.split(","));
-
+	public void code(String tables, @RequestParam(defaultValue = "false") boolean incremental,
+					 @RequestParam(defaultValue = "false") boolean report, HttpServletResponse response) throws IOException{
 		response.reset();
         response.setHeader("Content-Disposition", "attachment; filename=\"lrcores.zip\"");
-        response.addHeader("Content-Length", "" + data.length);
         response.setContentType("application/octet-stream; charset=UTF-8");
 
-        IOUtils.write(data, response.getOutputStream());
+		//边生成边输出，不在内存中保存整个zip
+		sysGeneratorService.generatorCode(tables.split(","), incremental, report, response.getOutputStream());
 	}
 }
@@ -1,5 +1,8 @@
 package io.lrcores.dao;
 
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -13,4 +16,19 @@ public interface GeneratorDao {
     Map<String, String> queryTable(String tableName);
 
     List<Map<String, String>> queryColumns(String tableName);
+
+    /**
+     * 批量查询表信息
+     */
+    List<Map<String, String>> queryTables(@Param("tableNames") Collection<String> tableNames);
+
+    /**
+     * 批量查询列信息，按表名、列顺序排序
+     */
+    List<Map<String, String>> queryColumnsByTables(@Param("tableNames") Collection<String> tableNames);
+
+    /**
+     * 数据库结构版本，表结构变化时改变
+     */
+    String querySchemaVersion();
 }
@@ -3,16 +3,29 @@ package io.lrcores.service;
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
 import io.lrcores.dao.GeneratorDao;
+import io.lrcores.utils.DateUtils;
+import io.lrcores.utils.GenState;
 import io.lrcores.utils.GenUtils;
 import io.lrcores.utils.PageUtils;
 import io.lrcores.utils.Query;
+import io.lrcores.utils.RRException;
 import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
-import java.util.List;
-import java.util.Map;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 /**
@@ -23,12 +36,91 @@ import java.util.zip.ZipOutputStream;
 public class SysGeneratorService {
 	@Autowired
 	private GeneratorDao generatorDao;
+	@Autowired
+	private DataSource dataSource;
+	@Value("${lrcores.generator.threads:4}")
+	private int threads;
+	@Value("${lrcores.generator.state-dir:./generator-state}")
+	private String stateDir;
+	/**
+	 * 检查数据库结构版本的间隔(毫秒)，间隔内直接使用缓存的表列表
+	 */
+	@Value("${lrcores.generator.schema-version-ttl:5000}")
+	private long schemaVersionTtl;
+
+	/**
+	 * 上次生成的状态，用于增量生成，首次生成时按数据源、schema加载
+	 */
+	private volatile GenState genState;
+
+	/**
+	 * 渲染线程池
+	 */
+	private ExecutorService executor;
+	/**
+	 * 批量查询元数据时，每批的表数量(Oracle的in最多1000个)
+	 */
+	private static final int METADATA_BATCH = 500;
+	/**
+	 * 表列表缓存，key为表名查询条件，数据库结构版本变化时清空
+	 */
+	private final Map<String, List<Map<String, Object>>> tableListCache = new ConcurrentHashMap<>();
+	private static final int TABLE_LIST_CACHE_SIZE = 64;
+	private volatile String schemaVersion;
+	private volatile long schemaCheckTime;
+
+	@PostConstruct
+	public void init() {
+		AtomicInteger count = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "generator-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
 
 	public PageUtils queryList(Query query) {
-		Page<?> page = PageHelper.startPage(query.getPage(), query.getLimit());
-		List<Map<String, Object>> list = generatorDao.queryList(query);
+		//数据库结构没有变化时，使用缓存的表列表分页
+		long now = System.currentTimeMillis();
+		if(schemaVersion == null || now - schemaCheckTime >= schemaVersionTtl){
+			String version = generatorDao.querySchemaVersion();
+			if(version == null){
+				Page<?> page = PageHelper.startPage(query.getPage(), query.getLimit());
+				List<Map<String, Object>> list = generatorDao.queryList(query);
+
+				return new PageUtils(list, (int)page.getTotal(), query.getLimit(), query.getPage());
+			}
+			if(!version.equals(schemaVersion)){
+				tableListCache.clear();
+				schemaVersion = version;
+			}
+			schemaCheckTime = now;
+		}
+
+		String tableName = (String)query.get("tableName");
+		String key = tableName == null ? "" : tableName.trim();
+		List<Map<String, Object>> list = tableListCache.get(key);
+		if(list == null){
+			list = Collections.unmodifiableList(generatorDao.queryList(query));
+			if(tableListCache.size() >= TABLE_LIST_CACHE_SIZE){
+				tableListCache.clear();
+			}
+			tableListCache.put(key, list);
+		}
+
+		//超出总页数时，显示最后一页
+		int limit = query.getLimit();
+		int totalPage = Math.max(1, (list.size() + limit - 1) / limit);
+		int currPage = Math.min(Math.max(query.getPage(), 1), totalPage);
+		int from = (currPage - 1) * limit;
+		List<Map<String, Object>> pageList = list.subList(from, Math.min(from + limit, list.size()));
 
-		return new PageUtils(list, (int)page.getTotal(), query.getLimit(), query.getPage());
+		return new PageUtils(new ArrayList<>(pageList), list.size(), limit, currPage);
 	}
 
 	public Map<String, String> queryTable(String tableName) {
@@ -39,19 +131,196 @@ public class SysGeneratorService {
 		return generatorDao.queryColumns(tableName);
 	}
 
-	public byte[] generatorCode(String[] tableNames) {
-		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+	/**
+	 * 生成代码，按表并行渲染，按表的顺序写入zip
+	 * 最多 threads*2 个表的渲染结果在内存中，zip直接写入输出流
+	 *
+	 * @param incremental 增量生成，跳过指纹未变化的表，只输出内容有变化的文件
+	 * @param report      是否在zip中输出生成报告
+	 */
+	public void generatorCode(String[] tableNames, boolean incremental, boolean report, OutputStream outputStream) throws IOException {
+		GenState genState = getGenState();
+		//本次生成的状态，全部输出成功后再更新，避免客户端断开或生成失败时记录未收到的文件
+		Map<String, GenState.TableState> states = new HashMap<>();
 		ZipOutputStream zip = new ZipOutputStream(outputStream);
+		String datetime = DateUtils.format(new Date(), DateUtils.DATE_TIME_PATTERN);
+		List<String> reportLines = new ArrayList<>();
+		Deque<Future<GenResult>> futures = new ArrayDeque<>();
+		try {
+			List<String> names = Arrays.asList(tableNames);
+			for(int i = 0; i < names.size(); i += METADATA_BATCH){
+				List<String> batch = names.subList(i, Math.min(i + METADATA_BATCH, names.size()));
+				//批量查询表信息、列信息
+				Map<String, Map<String, String>> tables = queryTables(batch);
+				Map<String, List<Map<String, String>>> columns = queryColumns(batch);
+
+				for(String tableName : batch){
+					Map<String, String> table = tables.get(tableName);
+					if(table == null){
+						throw new RRException("表不存在：" + tableName);
+					}
+					List<Map<String, String>> tableColumns = columns.getOrDefault(tableName, Collections.emptyList());
+
+					//表结构、模板、配置都没有变化，跳过
+					String fingerprint = GenState.fingerprint(table, tableColumns);
+					GenState.TableState old = genState.get(tableName);
+					if(incremental && old != null && fingerprint.equals(old.getFingerprint())){
+						reportLines.add("[SKIP] " + tableName);
+						continue;
+					}
+
+					//生成代码
+					futures.add(executor.submit(() -> new GenResult(tableName, fingerprint,
+							GenState.columnSignatures(tableColumns), GenUtils.render(table, tableColumns, datetime))));
+
+					if(futures.size() >= threads * 2){
+						write(getResult(futures.poll()), genState, states, incremental, datetime, reportLines, zip);
+					}
+				}
+			}
+			while(!futures.isEmpty()){
+				write(getResult(futures.poll()), genState, states, incremental, datetime, reportLines, zip);
+			}
+		} finally {
+			for(Future<?> future : futures){
+				future.cancel(true);
+			}
+		}
+
+		if(report){
+			zip.putNextEntry(new ZipEntry("generator-report.txt"));
+			IOUtils.write(String.join("\n", reportLines) + "\n", zip, "UTF-8");
+			zip.closeEntry();
+		}
+		zip.finish();
+		outputStream.flush();
+
+		genState.putAll(states);
+		genState.save();
+
+		//生成代码前后表结构可能刚被修改，下次查询表列表时重新检查
+		invalidateTableList();
+	}
+
+	/**
+	 * 清空表列表缓存
+	 */
+	private void invalidateTableList() {
+		schemaVersion = null;
+		tableListCache.clear();
+	}
+
+	/**
+	 * 按数据源地址(含数据库、schema参数)、用户加载生成状态，不同数据库的同名表分别记录
+	 */
+	private GenState getGenState() {
+		GenState state = genState;
+		if(state != null){
+			return state;
+		}
+
+		synchronized (this) {
+			if(genState == null){
+				try (Connection connection = dataSource.getConnection()) {
+					DatabaseMetaData metaData = connection.getMetaData();
+					genState = new GenState(stateDir, metaData.getURL() + "|" + metaData.getUserName());
+				} catch (SQLException e) {
+					throw new RRException("读取数据源信息失败", e);
+				}
+			}
+			return genState;
+		}
+	}
+
+	/**
+	 * 写入zip，增量生成时只写入内容有变化的文件，生成状态记录到states
+	 */
+	private void write(GenResult result, GenState genState, Map<String, GenState.TableState> states, boolean incremental,
+					   String datetime, List<String> reportLines, ZipOutputStream zip) {
+		GenState.TableState old = genState.get(result.tableName);
+		Map<String, String> oldFiles = old == null || old.getFiles() == null ? Collections.emptyMap() : old.getFiles();
+
+		Map<String, String> hashes = new LinkedHashMap<>();
+		Map<String, String> files = new LinkedHashMap<>();
+		List<String> fileLines = new ArrayList<>();
+		for(Map.Entry<String, String> file : result.files.entrySet()){
+			//生成时间每次都不同，不参与比较
+			String hash = GenState.sha256(file.getValue().replace(datetime, ""));
+			hashes.put(file.getKey(), hash);
+
+			String oldHash = oldFiles.get(file.getKey());
+			if(!incremental || !hash.equals(oldHash)){
+				files.put(file.getKey(), file.getValue());
+				fileLines.add((oldHash == null ? "    [ADD] " : "    [MODIFY] ") + file.getKey());
+			}
+		}
+		GenUtils.writeZip(files, zip);
+
+		reportLines.add((old == null ? "[NEW] " : "[CHANGED] ") + result.tableName);
+		if(old != null && old.getColumns() != null){
+			for(String line : GenState.diffColumns(old.getColumns(), result.columns)){
+				reportLines.add("    " + line);
+			}
+		}
+		reportLines.addAll(fileLines);
+
+		GenState.TableState state = new GenState.TableState();
+		state.setFingerprint(result.fingerprint);
+		state.setColumns(result.columns);
+		state.setFiles(hashes);
+		states.put(result.tableName, state);
+	}
+
+	/**
+	 * 批量查询表信息，key为表名(忽略大小写)
+	 */
+	private Map<String, Map<String, String>> queryTables(Collection<String> tableNames) {
+		Map<String, Map<String, String>> tables = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for(Map<String, String> table : generatorDao.queryTables(tableNames)){
+			tables.put(table.get("tableName"), table);
+		}
+		return tables;
+	}
+
+	/**
+	 * 批量查询列信息，按表名分组(忽略大小写)
+	 */
+	private Map<String, List<Map<String, String>>> queryColumns(Collection<String> tableNames) {
+		Map<String, List<Map<String, String>>> columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for(Map<String, String> column : generatorDao.queryColumnsByTables(tableNames)){
+			columns.computeIfAbsent(column.get("tableName"), k -> new ArrayList<>()).add(column);
+		}
+		return columns;
+	}
+
+	private GenResult getResult(Future<GenResult> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RRException("生成代码被中断", e);
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof RRException){
+				throw (RRException)e.getCause();
+			}
+			throw new RRException("生成代码失败", e.getCause());
+		}
+	}
+
+	/**
+	 * 单张表的渲染结果
+	 */
+	private static class GenResult {
+		private final String tableName;
+		private final String fingerprint;
+		private final Map<String, String> columns;
+		private final Map<String, String> files;
 
-		for(String tableName : tableNames){
-			//查询表信息
-			Map<String, String> table = queryTable(tableName);
-			//查询列信息
-			List<Map<String, String>> columns = queryColumns(tableName);
-			//生成代码
-			GenUtils.generatorCode(table, columns, zip);
+		GenResult(String tableName, String fingerprint, Map<String, String> columns, Map<String, String> files) {
+			this.tableName = tableName;
+			this.fingerprint = fingerprint;
+			this.columns = columns;
+			this.files = files;
 		}
-		IOUtils.closeQuietly(zip);
-		return outputStream.toByteArray();
 	}
 }
@@ -0,0 +1,175 @@
+package io.lrcores.utils;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 代码生成状态，记录每张表上次生成时的指纹、列信息、文件摘要，用于增量生成
+ *
+ * 按数据源、schema分别保存，文件名为范围的摘要
+ *
+ */
+public class GenState {
+	private final File file;
+	private final Map<String, TableState> tables = new ConcurrentHashMap<>();
+
+	/**
+	 * @param dir    保存目录
+	 * @param scope  范围，如数据源地址、用户、schema
+	 */
+	public GenState(String dir, String scope) {
+		this.file = new File(dir, "state-" + sha256(scope).substring(0, 16) + ".json");
+		if(file.exists()){
+			try {
+				String json = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+				Map<String, TableState> map = JSON.parseObject(json, new TypeReference<Map<String, TableState>>(){});
+				if(map != null){
+					tables.putAll(map);
+				}
+			} catch (Exception e) {
+				throw new RRException("读取代码生成状态失败：" + file.getPath(), e);
+			}
+		}
+	}
+
+	public TableState get(String tableName) {
+		return tables.get(tableName.toLowerCase());
+	}
+
+	/**
+	 * 生成成功后更新
+	 */
+	public void putAll(Map<String, TableState> states) {
+		for(Map.Entry<String, TableState> entry : states.entrySet()){
+			tables.put(entry.getKey().toLowerCase(), entry.getValue());
+		}
+	}
+
+	public synchronized void save() {
+		try {
+			FileUtils.writeStringToFile(file, JSON.toJSONString(new TreeMap<>(tables), true), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new RRException("保存代码生成状态失败：" + file.getPath(), e);
+		}
+	}
+
+	/**
+	 * 表的指纹，表信息、列信息、模板和配置不变时相同
+	 */
+	public static String fingerprint(Map<String, String> table, List<Map<String, String>> columns) {
+		StringBuilder content = new StringBuilder();
+		content.append(table.get("tableName")).append('\n').append(table.get("tableComment")).append('\n');
+		for(Map.Entry<String, String> column : columnSignatures(columns).entrySet()){
+			content.append(column.getKey()).append('|').append(column.getValue()).append('\n');
+		}
+		content.append(GenUtils.getTemplateVersion());
+		return sha256(content.toString());
+	}
+
+	/**
+	 * 列名 -> 类型|主键|自增|注释，用于比较列的变化
+	 */
+	public static Map<String, String> columnSignatures(List<Map<String, String>> columns) {
+		Map<String, String> signatures = new LinkedHashMap<>();
+		for(Map<String, String> column : columns){
+			signatures.put(column.get("columnName"), column.get("dataType") + "|" + column.get("columnKey")
+					+ "|" + column.get("extra") + "|" + column.get("columnComment"));
+		}
+		return signatures;
+	}
+
+	/**
+	 * 比较两次的列信息，返回新增、删除、修改的列
+	 */
+	public static List<String> diffColumns(Map<String, String> oldColumns, Map<String, String> newColumns) {
+		List<String> diff = new ArrayList<>();
+		for(Map.Entry<String, String> column : newColumns.entrySet()){
+			String old = oldColumns.get(column.getKey());
+			if(old == null){
+				diff.add("+ " + column.getKey() + " " + column.getValue());
+			}else if(!old.equals(column.getValue())){
+				diff.add("~ " + column.getKey() + " " + old + " -> " + column.getValue());
+			}
+		}
+		for(Map.Entry<String, String> column : oldColumns.entrySet()){
+			if(!newColumns.containsKey(column.getKey())){
+				diff.add("- " + column.getKey() + " " + column.getValue());
+			}
+		}
+		return diff;
+	}
+
+	public static String sha256(String content) {
+		return sha256(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static String sha256(byte[] bytes) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			StringBuilder hex = new StringBuilder(digest.length * 2);
+			for(byte b : digest){
+				hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RRException("SHA-256不可用", e);
+		}
+	}
+
+	/**
+	 * 读取classpath资源的摘要
+	 */
+	static String resourceDigest(String name) {
+		try (InputStream in = GenState.class.getClassLoader().getResourceAsStream(name)) {
+			return in == null ? "" : sha256(IOUtils.toByteArray(in));
+		} catch (IOException e) {
+			throw new RRException("读取资源失败：" + name, e);
+		}
+	}
+
+	/**
+	 * 单张表的生成状态
+	 */
+	public static class TableState {
+		private String fingerprint;
+		/**  列名 -> 列签名  */
+		private Map<String, String> columns;
+		/**  文件名 -> 内容摘要(不含生成时间)  */
+		private Map<String, String> files;
+
+		public String getFingerprint() {
+			return fingerprint;
+		}
+
+		public void setFingerprint(String fingerprint) {
+			this.fingerprint = fingerprint;
+		}
+
+		public Map<String, String> getColumns() {
+			return columns;
+		}
+
+		public void setColumns(Map<String, String> columns) {
+			this.columns = columns;
+		}
+
+		public Map<String, String> getFiles() {
+			return files;
+		}
+
+		public void setFiles(Map<String, String> files) {
+			this.files = files;
+		}
+	}
+}
@@ -10,12 +10,13 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.WordUtils;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.Velocity;
+import org.apache.velocity.app.VelocityEngine;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -24,6 +25,22 @@ import java.util.zip.ZipOutputStream;
  *
  */
 public class GenUtils {
+	/**
+	 * velocity引擎，只初始化一次，可以多线程渲染
+	 */
+	private static final VelocityEngine VELOCITY = initVelocity();
+	/**
+	 * 解析后的模板
+	 */
+	private static final Map<String, Template> TEMPLATE_CACHE = new ConcurrentHashMap<>();
+	/**
+	 * 配置信息，只读取一次
+	 */
+	private static volatile Configuration config;
+	/**
+	 * 模板和配置文件的版本
+	 */
+	private static volatile String templateVersion;
 
 	public static List<String> getTemplates(){
 		List<String> templates = new ArrayList<String>();
@@ -44,6 +61,20 @@ public class GenUtils {
 	 */
 	public static void generatorCode(Map<String, String> table,
 			List<Map<String, String>> columns, ZipOutputStream zip){
+		writeZip(render(table, columns), zip);
+	}
+
+	/**
+	 * 渲染模板，返回文件名和文件内容，可以多线程调用
+	 */
+	public static Map<String, String> render(Map<String, String> table, List<Map<String, String>> columns){
+		return render(table, columns, DateUtils.format(new Date(), DateUtils.DATE_TIME_PATTERN));
+	}
+
+	/**
+	 * 渲染模板，指定生成时间
+	 */
+	public static Map<String, String> render(Map<String, String> table, List<Map<String, String>> columns, String datetime){
 		//配置信息
 		Configuration config = getConfig();
 		boolean hasBigDecimal = false;
@@ -90,11 +121,6 @@ public class GenUtils {
 			tableEntity.setPk(tableEntity.getColumns().get(0));
 		}
 
-		//设置velocity资源加载器
-		Properties prop = new Properties();
-		prop.put("file.resource.loader.class", "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
-		Velocity.init(prop);
-
 		String mainPath = config.getString("mainPath" );
 		mainPath = StringUtils.isBlank(mainPath) ? "io.lrcores" : mainPath;
 
@@ -113,29 +139,70 @@ public class GenUtils {
 		map.put("moduleName", config.getString("moduleName" ));
 		map.put("author", config.getString("author"));
 		map.put("email", config.getString("email"));
-		map.put("datetime", DateUtils.format(new Date(), DateUtils.DATE_TIME_PATTERN));
+		map.put("datetime", datetime);
         VelocityContext context = new VelocityContext(map);
 
         //获取模板列表
+		Map<String, String> files = new LinkedHashMap<>();
 		List<String> templates = getTemplates();
 		for(String template : templates){
 			//渲染模板
 			StringWriter sw = new StringWriter();
-			Template tpl = Velocity.getTemplate(template, "UTF-8");
+			Template tpl = getTemplate(template);
 			tpl.merge(context, sw);
 
-			try {
-				//添加到zip
-				zip.putNextEntry(new ZipEntry(getFileName(template, tableEntity.getClassName(), config.getString("package"), config.getString("moduleName"))));
-				IOUtils.write(sw.toString(), zip, "UTF-8");
-				IOUtils.closeQuietly(sw);
+			files.put(getFileName(template, tableEntity.getClassName(), config.getString("package"), config.getString("moduleName")), sw.toString());
+		}
+		return files;
+	}
+
+	/**
+	 * 渲染结果添加到zip
+	 */
+	public static void writeZip(Map<String, String> files, ZipOutputStream zip){
+		try {
+			for(Map.Entry<String, String> file : files.entrySet()){
+				zip.putNextEntry(new ZipEntry(file.getKey()));
+				IOUtils.write(file.getValue(), zip, "UTF-8");
 				zip.closeEntry();
-			} catch (IOException e) {
-				throw new RRException("渲染模板失败，表名：" + tableEntity.getTableName(), e);
 			}
+		} catch (IOException e) {
+			throw new RRException("写入zip失败", e);
 		}
 	}
 
+	private static VelocityEngine initVelocity(){
+		//设置velocity资源加载器
+		Properties prop = new Properties();
+		prop.put("file.resource.loader.class", "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
+		prop.put("file.resource.loader.cache", "true");
+		VelocityEngine engine = new VelocityEngine(prop);
+		engine.init();
+		return engine;
+	}
+
+	/**
+	 * 模板和配置文件的摘要，修改模板或配置后改变
+	 */
+	public static String getTemplateVersion(){
+		if(templateVersion == null){
+			StringBuilder digests = new StringBuilder();
+			for(String template : getTemplates()){
+				digests.append(GenState.resourceDigest(template)).append(',');
+			}
+			digests.append(GenState.resourceDigest("generator.properties"));
+			templateVersion = GenState.sha256(digests.toString());
+		}
+		return templateVersion;
+	}
+
+	/**
+	 * 获取解析后的模板
+	 */
+	public static Template getTemplate(String template){
+		return TEMPLATE_CACHE.computeIfAbsent(template, name -> VELOCITY.getTemplate(name, "UTF-8"));
+	}
+
 
 	/**
 	 * 列名转换成Java属性名
@@ -158,11 +225,18 @@ public class GenUtils {
 	 * 获取配置信息
 	 */
 	public static Configuration getConfig(){
-		try {
-			return new PropertiesConfiguration("generator.properties");
-		} catch (ConfigurationException e) {
-			throw new RRException("获取配置文件失败，", e);
+		if(config == null){
+			synchronized (GenUtils.class){
+				if(config == null){
+					try {
+						config = new PropertiesConfiguration("generator.properties");
+					} catch (ConfigurationException e) {
+						throw new RRException("获取配置文件失败，", e);
+					}
+				}
+			}
 		}
+		return config;
 	}
 
 	/**
@@ -55,6 +55,13 @@ var vm = new Vue({
 				return ;
 			}
             location.href = "sys/generator/code?tables=" + tableNames.join();
+		},
+		incrementalGenerator: function() {
+			var tableNames = getSelectedRows();
+			if(tableNames == null){
+				return ;
+			}
+            location.href = "sys/generator/code?incremental=true&report=true&tables=" + tableNames.join();
 		}
 	}
 });